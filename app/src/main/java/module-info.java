@@ -2,7 +2,9 @@ module org.example.id3tageditor {
     requires javafx.controls;
     requires javafx.fxml;
     requires jaudiotagger;
-    requires javafx.swing;
+    requires java.desktop;
+    requires java.logging;
+    requires java.management;
 
     opens org.example.id3tageditor to javafx.fxml;
     exports org.example.id3tageditor;
@@ -0,0 +1,49 @@
+package org.example.id3tageditor;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of decoded, downsampled cover images keyed by artwork content hash, bounded by the
+ * approximate number of bytes their pixels occupy.
+ */
+public class ArtworkCache {
+
+    private record Key(String hash, int width, int height) {}
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    public ArtworkCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized Image get(String hash, int width, int height) {
+        return images.get(new Key(hash, width, height));
+    }
+
+    public synchronized void put(String hash, int width, int height, Image image) {
+        Image previous = images.put(new Key(hash, width, height), image);
+        if (previous != null) {
+            currentBytes -= sizeOf(previous);
+        }
+        currentBytes += sizeOf(image);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Image>> it = images.entrySet().iterator();
+        while (currentBytes > maxBytes && images.size() > 1 && it.hasNext()) {
+            currentBytes -= sizeOf(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+}
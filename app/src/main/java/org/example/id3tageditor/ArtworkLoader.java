@@ -0,0 +1,80 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Reads and decodes cover art off the FX thread, downsampled to the size it is displayed at.
+ * Decoded images are cached by content hash, so tracks sharing a cover decode it once. Only
+ * the most recent request is served; older ones that are still queued are dropped.
+ */
+public class ArtworkLoader {
+
+    private static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private final ID3TagService tagService;
+    private final ArtworkCache cache = new ArtworkCache(DEFAULT_CACHE_BYTES);
+    private final TagMetrics metrics = TagMetrics.global();
+    private final AtomicReference<ArtworkRef> latest = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "artwork-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ArtworkLoader(ID3TagService tagService) {
+        this.tagService = tagService;
+    }
+
+    public Image getCached(ArtworkRef ref, int width, int height) {
+        String hash = ref.getHash();
+        Image image = hash != null ? cache.get(hash, width, height) : null;
+        if (image != null) {
+            // Misses are counted by the load that follows.
+            metrics.artworkCacheLookup(true);
+        }
+        return image;
+    }
+
+    public void load(ID3Tag tag, int width, int height, Consumer<Image> onLoaded) {
+        ArtworkRef ref = tag.getArtwork();
+        String filePath = tag.getFilePath();
+        latest.set(ref);
+        executor.execute(() -> {
+            if (latest.get() != ref) {
+                return;
+            }
+            try {
+                byte[] data = ref.isEmbedded() ? tagService.readArtworkData(new File(filePath)) : ref.getData();
+                if (data == null) {
+                    return;
+                }
+                if (ref.getHash() == null) {
+                    ref.resolveHash(ArtworkStore.hash(data));
+                }
+                Image image = cache.get(ref.getHash(), width, height);
+                metrics.artworkCacheLookup(image != null);
+                if (image == null) {
+                    long start = System.nanoTime();
+                    image = new Image(new ByteArrayInputStream(data), width, height, true, true);
+                    metrics.record(TagMetrics.Operation.DECODE_ARTWORK, start);
+                    if (image.isError()) {
+                        return;
+                    }
+                    cache.put(ref.getHash(), width, height, image);
+                }
+                Image loaded = image;
+                Platform.runLater(() -> onLoaded.accept(loaded));
+            } catch (Exception e) {
+                System.err.println("Could not load artwork for " + filePath + ": " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recompresses the cover art of a selection in parallel. Each distinct cover is recompressed
+ * once, however many tracks share it. The task only computes the new artwork; the caller
+ * applies {@link #getResults()} to the tags on the FX thread and they are written on the next
+ * save.
+ */
+public class ArtworkRecompressTask extends ParallelFileTask<ID3Tag> {
+
+    private final ID3TagService tagService;
+    private final ArtworkStore artworkStore;
+    private final ArtworkRecompressor recompressor;
+
+    // Futures rather than results, so that a cover is recompressed outside the map's locks.
+    private final Map<String, CompletableFuture<Optional<ArtworkRef>>> byHash = new ConcurrentHashMap<>();
+    private final Map<ID3Tag, ArtworkRef> results = new ConcurrentHashMap<>();
+    private final LongAdder bytesBefore = new LongAdder();
+    private final LongAdder bytesAfter = new LongAdder();
+
+    public ArtworkRecompressTask(ID3TagService tagService, ArtworkStore artworkStore, ArtworkRecompressor recompressor,
+                                 List<ID3Tag> tags, int parallelism) {
+        super(tags, parallelism, "Recompressing artwork of");
+        this.tagService = tagService;
+        this.artworkStore = artworkStore;
+        this.recompressor = recompressor;
+    }
+
+    @Override
+    protected File fileOf(ID3Tag tag) {
+        return new File(tag.getFilePath());
+    }
+
+    @Override
+    protected void process(ID3Tag tag) throws Exception {
+        ArtworkRef ref = tag.getArtwork();
+        if (ref == null) {
+            return;
+        }
+        byte[] data = ref.isEmbedded() ? tagService.readArtworkData(fileOf(tag)) : ref.getData();
+        if (data == null) {
+            return;
+        }
+        if (ref.getHash() == null) {
+            ref.resolveHash(ArtworkStore.hash(data));
+        }
+        Optional<ArtworkRef> recompressed = recompressOnce(ref.getHash(), data);
+        if (recompressed.isPresent()) {
+            results.put(tag, recompressed.get());
+            bytesBefore.add(data.length);
+            bytesAfter.add(recompressed.get().getData().length);
+        }
+    }
+
+    /**
+     * Recompresses the cover with the given hash, or waits for the item that is already doing
+     * so and takes its result.
+     */
+    private Optional<ArtworkRef> recompressOnce(String hash, byte[] data) throws Exception {
+        CompletableFuture<Optional<ArtworkRef>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<ArtworkRef>> existing = byHash.putIfAbsent(hash, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        try {
+            Optional<ArtworkRef> recompressed = recompress(data);
+            future.complete(recompressed);
+            return recompressed;
+        } catch (Throwable e) {
+            // Whatever happens, the items waiting for this cover must not wait forever.
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Optional<ArtworkRef> recompress(byte[] data) throws IOException {
+        byte[] smaller = recompressor.recompress(data);
+        return smaller != null ? Optional.of(artworkStore.intern(smaller, ImageFormats.MIME_TYPE_JPEG)) : Optional.empty();
+    }
+
+    /**
+     * The new artwork for every tag whose cover got smaller.
+     */
+    public Map<ID3Tag, ArtworkRef> getResults() {
+        return Map.copyOf(results);
+    }
+
+    public long getBytesBefore() {
+        return bytesBefore.sum();
+    }
+
+    public long getBytesAfter() {
+        return bytesAfter.sum();
+    }
+}
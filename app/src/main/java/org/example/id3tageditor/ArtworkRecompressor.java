@@ -0,0 +1,106 @@
+package org.example.id3tageditor;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Shrinks cover art to a maximum edge length and re-encodes it as JPEG at a given quality.
+ * Covers that are already within bounds are only replaced when re-encoding saves a worthwhile
+ * amount, so running the action twice does not keep degrading them.
+ */
+public class ArtworkRecompressor {
+
+    private static final double MIN_SAVING = 0.1;
+
+    private final int maxDimension;
+    private final float quality;
+
+    public ArtworkRecompressor(int maxDimension, float quality) {
+        if (maxDimension <= 0) {
+            throw new IllegalArgumentException("Maximum dimension must be positive: " + maxDimension);
+        }
+        if (quality <= 0 || quality > 1) {
+            throw new IllegalArgumentException("Quality must be in (0, 1]: " + quality);
+        }
+        this.maxDimension = maxDimension;
+        this.quality = quality;
+    }
+
+    public int getMaxDimension() { return maxDimension; }
+    public float getQuality() { return quality; }
+
+    /**
+     * Returns the recompressed JPEG bytes, or {@code null} if the original should be kept.
+     */
+    public byte[] recompress(byte[] data) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(data));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        int longestEdge = Math.max(source.getWidth(), source.getHeight());
+        boolean resize = longestEdge > maxDimension;
+        double scale = resize ? (double) maxDimension / longestEdge : 1.0;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        byte[] encoded = encodeJpeg(scale(source, width, height));
+        return resize || encoded.length < data.length * (1 - MIN_SAVING) ? encoded : null;
+    }
+
+    /**
+     * Halves the image until it is within a factor of two of the target before the final
+     * bilinear step; a single bilinear pass over a large reduction skips most source pixels.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    // JPEG has no alpha channel, so transparent areas are painted white.
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.id3tageditor;
+
+/**
+ * A lightweight handle to a tag's cover art. An embedded reference only records that the
+ * file has artwork; the bytes are read from the file when the cover is actually needed, and
+ * its content hash becomes known at that point. A reference holding data is new artwork that
+ * has not been written yet, kept as the original encoded bytes along with their MIME type;
+ * these are created through {@link ArtworkStore} so identical covers share one instance.
+ */
+public final class ArtworkRef {
+
+    private final byte[] data;
+    private final String mimeType;
+    private volatile String hash;
+
+    private ArtworkRef(byte[] data, String mimeType, String hash) {
+        this.data = data;
+        this.mimeType = mimeType;
+        this.hash = hash;
+    }
+
+    public static ArtworkRef embedded() {
+        return new ArtworkRef(null, null, null);
+    }
+
+    static ArtworkRef of(byte[] data, String mimeType, String hash) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Artwork data must not be empty");
+        }
+        return new ArtworkRef(data, mimeType, hash);
+    }
+
+    public boolean isEmbedded() {
+        return data == null;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * The MIME type of {@link #getData()}, or {@code null} for embedded artwork.
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * The content hash of the artwork, or {@code null} for embedded artwork that has not been
+     * read yet.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    void resolveHash(String hash) {
+        this.hash = hash;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Content-addressed registry of artwork. Interning the same bytes twice returns the same
+ * {@link ArtworkRef}, so every track of an album that gets a cover shares one buffer, and
+ * decoded images are cached by the same hash. Entries disappear once no tag refers to them.
+ */
+public class ArtworkStore {
+
+    private static final class Entry extends WeakReference<ArtworkRef> {
+        private final String hash;
+
+        Entry(ArtworkRef ref, ReferenceQueue<ArtworkRef> queue) {
+            super(ref, queue);
+            this.hash = ref.getHash();
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReferenceQueue<ArtworkRef> queue = new ReferenceQueue<>();
+
+    /**
+     * Interns artwork bytes as they are, with the MIME type detected from their signature.
+     */
+    public ArtworkRef intern(byte[] data) {
+        String mimeType = ImageFormats.getMimeTypeForBinarySignature(data);
+        return intern(data, mimeType != null ? mimeType : ImageFormats.MIME_TYPE_PNG);
+    }
+
+    public synchronized ArtworkRef intern(byte[] data, String mimeType) {
+        purge();
+        String hash = hash(data);
+        Entry entry = entries.get(hash);
+        ArtworkRef existing = entry != null ? entry.get() : null;
+        if (existing != null) {
+            return existing;
+        }
+        ArtworkRef ref = ArtworkRef.of(data, mimeType, hash);
+        entries.put(hash, new Entry(ref, queue));
+        return ref;
+    }
+
+    public synchronized int size() {
+        purge();
+        return entries.size();
+    }
+
+    public static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void purge() {
+        Entry stale;
+        while ((stale = (Entry) queue.poll()) != null) {
+            entries.remove(stale.hash, stale);
+        }
+    }
+}
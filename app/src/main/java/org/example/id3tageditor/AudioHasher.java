@@ -0,0 +1,185 @@
+package org.example.id3tageditor;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashes the audio of a file, leaving out its tags, so two files with the same recording hash
+ * alike however differently they are tagged. Only formats whose audio can be told apart from the
+ * metadata are hashed (see {@link #supports}):
+ * <ul>
+ *     <li>MP3: everything between a leading ID3v2 tag and a trailing ID3v1 block, with any zero
+ *     padding left in front of the first frame skipped.</li>
+ *     <li>FLAC: the frames after the last metadata block (and after an ID3v2 tag some taggers put
+ *     in front), up to a trailing ID3v1 block.</li>
+ *     <li>MP4 (M4A, M4B, M4P): the contents of the {@code mdat} boxes, in file order; the tags
+ *     live in the {@code moov} box.</li>
+ * </ul>
+ * <p>
+ * Files are read sequentially in large blocks into direct buffers that are pooled between calls,
+ * so hashing many files on virtual threads neither churns the heap nor leaves files mapped (a
+ * mapped file cannot be moved or deleted on Windows until the mapping is collected).
+ */
+final class AudioHasher {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FLAC_MARKER = 0x664C6143; // "fLaC"
+    private static final int MDAT = 0x6D646174; // "mdat"
+    private static final Set<String> MP4_EXTENSIONS = Set.of("m4a", "m4b", "m4p", "mp4");
+    private static final Queue<ByteBuffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    private AudioHasher() {
+    }
+
+    /**
+     * Whether {@link #hash} can separate the audio of this file from its tags, told by its
+     * extension.
+     */
+    static boolean supports(File file) {
+        String extension = extension(file);
+        return extension.equals("mp3") || extension.equals("flac") || MP4_EXTENSIONS.contains(extension);
+    }
+
+    static String hash(File file) throws IOException {
+        String extension = extension(file);
+        if (!supports(file)) {
+            throw new IOException("The audio of ." + extension + " files is not hashed");
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = BUFFERS.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long bytesRead;
+            if (extension.equals("flac")) {
+                bytesRead = hashRange(channel, flacAudioStart(channel), FastTagReader.audioEnd(channel), false, digest, buffer);
+            } else if (MP4_EXTENSIONS.contains(extension)) {
+                bytesRead = hashMediaData(channel, digest, buffer);
+            } else {
+                bytesRead = hashRange(channel, FastTagReader.audioStart(channel), FastTagReader.audioEnd(channel), true, digest, buffer);
+            }
+            TagMetrics.global().addBytesRead(bytesRead);
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Feeds the bytes from {@code position} to {@code end} to the digest and returns how many
+     * were read. With {@code skipLeadingZeros}, zero bytes at the start are left out.
+     */
+    private static long hashRange(FileChannel channel, long position, long end, boolean skipLeadingZeros,
+                                  MessageDigest digest, ByteBuffer buffer) throws IOException {
+        long bytesRead = 0;
+        boolean leading = skipLeadingZeros;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+            bytesRead += read;
+            buffer.flip();
+            if (leading) {
+                while (buffer.hasRemaining() && buffer.get(buffer.position()) == 0) {
+                    buffer.get();
+                }
+                leading = !buffer.hasRemaining();
+            }
+            digest.update(buffer);
+        }
+        return bytesRead;
+    }
+
+    /**
+     * The offset of the first FLAC frame: past the stream marker and every metadata block, each
+     * of which starts with a flag for the last block and a 24-bit length.
+     */
+    private static long flacAudioStart(FileChannel channel) throws IOException {
+        long position = FastTagReader.audioStart(channel);
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(channel, header, position);
+        if (header.getInt(0) != FLAC_MARKER) {
+            throw new IOException("Not a FLAC stream");
+        }
+        position += 4;
+        boolean last;
+        do {
+            readFully(channel, header.clear(), position);
+            int blockHeader = header.getInt(0);
+            last = blockHeader < 0;
+            position += 4 + (blockHeader & 0xFFFFFF);
+        } while (!last);
+        return position;
+    }
+
+    /**
+     * Hashes the payload of every top-level {@code mdat} box of an MP4 file and returns the
+     * number of bytes read. A box starts with a 32-bit size and its type; a size of 1 means a
+     * 64-bit size follows, and 0 means the box runs to the end of the file.
+     */
+    private static long hashMediaData(FileChannel channel, MessageDigest digest, ByteBuffer buffer) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(8);
+        long position = 0;
+        long bytesRead = 0;
+        boolean found = false;
+        while (position + 8 <= fileSize) {
+            readFully(channel, header.clear(), position);
+            long boxSize = Integer.toUnsignedLong(header.getInt(0));
+            int type = header.getInt(4);
+            int headerSize = 8;
+            if (boxSize == 1) {
+                readFully(channel, header.clear(), position + 8);
+                boxSize = header.getLong(0);
+                headerSize = 16;
+            } else if (boxSize == 0) {
+                boxSize = fileSize - position;
+            }
+            if (boxSize < headerSize) {
+                throw new IOException("Malformed MP4 box at offset " + position);
+            }
+            if (type == MDAT) {
+                bytesRead += hashRange(channel, position + headerSize, Math.min(position + boxSize, fileSize), false, digest, buffer);
+                found = true;
+            }
+            position += boxSize;
+        }
+        if (!found) {
+            throw new IOException("No media data in MP4 file");
+        }
+        return bytesRead;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file at offset " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static String extension(File file) {
+        String name = file.getName();
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashes the audio of loaded files in parallel and groups the tags whose files hold the same
+ * recording. The files must be in a format {@link AudioHasher#supports}. Hashes are taken from the tag cache where the file has not changed since it was
+ * last hashed, so a repeated scan only reads new and modified files.
+ */
+public class DuplicateScanTask extends ParallelFileTask<ID3Tag> {
+
+    private final ID3TagService tagService;
+    private final Map<ID3Tag, String> hashes = new ConcurrentHashMap<>();
+
+    public DuplicateScanTask(ID3TagService tagService, List<ID3Tag> tags, int parallelism) {
+        super(tags, parallelism, "Hashing audio of");
+        this.tagService = tagService;
+    }
+
+    @Override
+    protected File fileOf(ID3Tag tag) {
+        return new File(tag.getFilePath());
+    }
+
+    @Override
+    protected void process(ID3Tag tag) throws Exception {
+        hashes.put(tag, tagService.audioHash(fileOf(tag)));
+    }
+
+    @Override
+    protected void allCompleted() {
+        tagService.saveCache();
+    }
+
+    /**
+     * The groups of two or more tags with the same audio, each sorted by path, ordered by the
+     * path of their first tag.
+     */
+    public List<List<ID3Tag>> getDuplicates() {
+        Map<String, List<ID3Tag>> byHash = new LinkedHashMap<>();
+        hashes.forEach((tag, hash) -> byHash.computeIfAbsent(hash, key -> new ArrayList<>(2)).add(tag));
+        Comparator<ID3Tag> byPath = Comparator.comparing(ID3Tag::getFilePath);
+        List<List<ID3Tag>> groups = new ArrayList<>();
+        for (List<ID3Tag> group : byHash.values()) {
+            if (group.size() > 1) {
+                group.sort(byPath);
+                groups.add(group);
+            }
+        }
+        groups.sort(Comparator.comparing(group -> group.get(0).getFilePath()));
+        return groups;
+    }
+
+    public int getHashedCount() {
+        return hashes.size();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.id3tageditor;
+
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Lists groups of loaded files that hold the same audio. Accepting selects every copy but the
+ * first of each group, ready to be reviewed or removed from the list.
+ */
+public class DuplicatesDialog extends Dialog<List<ID3Tag>> {
+
+    private static final ButtonType SELECT_COPIES = new ButtonType("Select Extra Copies", ButtonBar.ButtonData.OK_DONE);
+
+    private record Row(int group, ID3Tag tag) {
+    }
+
+    private DuplicatesDialog(Window owner, List<List<ID3Tag>> groups, int scanned) {
+        initOwner(owner);
+        setTitle("Duplicate Tracks");
+        int copies = groups.stream().mapToInt(List::size).sum() - groups.size();
+        setHeaderText(groups.size() + " recording(s) occur more than once among " + scanned + " file(s); "
+                + copies + " extra cop" + (copies == 1 ? "y" : "ies") + ".");
+        setResizable(true);
+        getDialogPane().getButtonTypes().addAll(SELECT_COPIES, ButtonType.CLOSE);
+
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            for (ID3Tag tag : groups.get(i)) {
+                rows.add(new Row(i + 1, tag));
+            }
+        }
+        TableView<Row> table = new TableView<>(FXCollections.observableList(rows));
+        table.getColumns().addAll(List.of(
+                column("#", row -> String.valueOf(row.group()), 40),
+                column("File", row -> row.tag().getFileName(), 220),
+                column("Title", row -> row.tag().getTitle(), 160),
+                column("Artist", row -> row.tag().getArtist(), 130),
+                column("Album", row -> row.tag().getAlbum(), 130),
+                column("Bitrate", row -> row.tag().getBitrate(), 70),
+                column("Folder", row -> new File(row.tag().getFilePath()).getParent(), 260)));
+        table.setPrefHeight(420);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        Label note = new Label("Files are compared by their audio only; tags and cover art are ignored.");
+        VBox content = new VBox(8, table, note);
+        content.setPadding(new Insets(10));
+        getDialogPane().setContent(content);
+        getDialogPane().setPrefWidth(980);
+
+        setResultConverter(button -> {
+            if (button != SELECT_COPIES) {
+                return null;
+            }
+            List<ID3Tag> extras = new ArrayList<>(copies);
+            for (List<ID3Tag> group : groups) {
+                extras.addAll(group.subList(1, group.size()));
+            }
+            return extras;
+        });
+    }
+
+    private static TableColumn<Row, String> column(String title, Function<Row, String> value, double width) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(Objects.toString(value.apply(cell.getValue()), "")));
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    /**
+     * Shows the duplicate groups found among {@code scanned} files and returns the extra copies
+     * if the user chose to select them.
+     */
+    public static Optional<List<ID3Tag>> show(Window owner, List<List<ID3Tag>> groups, int scanned) {
+        return new DuplicatesDialog(owner, groups, scanned).showAndWait();
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.id3tageditor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Undo and redo history of tag edits. Each batch operation, however many files it touches, is
+ * one step that stores only the fields it actually changed: for every change the tag, the field
+ * and the values before and after, kept in parallel arrays rather than as objects per change.
+ * Values are the tags' own (mostly interned) strings, and artwork is kept as the shared
+ * {@link ArtworkRef} handle, so a step never copies text or image data.
+ * <p>
+ * Steps are dropped oldest first once their estimated size exceeds the memory budget. Undoing
+ * or redoing also restores which fields were dirty, unless the file was saved in between, in
+ * which case the changed fields are left dirty so the next save writes them. All methods must
+ * be called on the FX thread.
+ */
+public class EditHistory {
+
+    private static final TagField[] FIELDS = TagField.values();
+    private static final byte ARTWORK = -1;
+    // Rough sizes of what a step keeps alive, in bytes.
+    private static final long STEP_OVERHEAD = 96;
+    private static final long TAG_OVERHEAD = 16;
+    private static final long CHANGE_OVERHEAD = 16;
+    private static final long STRING_OVERHEAD = 48;
+
+    private static final class Step {
+        final String description;
+        final ID3Tag[] tags;
+        final int[] cleanVersions;
+        final int[] dirtyBefore;
+        final int[] dirtyAfter;
+        final int[] changeTags;
+        final byte[] changeFields;
+        final Object[] before;
+        final Object[] after;
+        long size;
+
+        Step(Batch batch) {
+            description = batch.description;
+            tags = Arrays.copyOf(batch.tags, batch.tagCount);
+            cleanVersions = new int[tags.length];
+            dirtyBefore = Arrays.copyOf(batch.dirtyBefore, tags.length);
+            dirtyAfter = new int[tags.length];
+            for (int i = 0; i < tags.length; i++) {
+                cleanVersions[i] = tags[i].getCleanVersion();
+                dirtyAfter[i] = tags[i].dirtyState();
+            }
+            changeTags = Arrays.copyOf(batch.changeTags, batch.changeCount);
+            changeFields = Arrays.copyOf(batch.changeFields, batch.changeCount);
+            before = Arrays.copyOf(batch.before, batch.changeCount);
+            after = Arrays.copyOf(batch.after, batch.changeCount);
+        }
+
+        void apply(boolean undo) {
+            Object[] values = undo ? before : after;
+            int count = changeTags.length;
+            for (int n = 0; n < count; n++) {
+                // Undo walks the changes backwards so that a field changed twice ends up as it began.
+                int i = undo ? count - 1 - n : n;
+                ID3Tag tag = tags[changeTags[i]];
+                if (changeFields[i] == ARTWORK) {
+                    tag.setArtwork((ArtworkRef) values[i]);
+                } else {
+                    tag.set(FIELDS[changeFields[i]], (String) values[i]);
+                }
+            }
+            int[] dirty = undo ? dirtyBefore : dirtyAfter;
+            for (int i = 0; i < tags.length; i++) {
+                if (tags[i].getCleanVersion() == cleanVersions[i]) {
+                    tags[i].restoreDirtyState(dirty[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes being made as one step. The setters apply each change to its tag right away and
+     * remember it; nothing is recorded until the batch is passed to {@link #commit}.
+     */
+    public final class Batch {
+        private final String description;
+        private final Map<ID3Tag, Integer> tagIndex = new IdentityHashMap<>();
+        private ID3Tag[] tags = new ID3Tag[16];
+        private int[] dirtyBefore = new int[16];
+        private int tagCount;
+        private int[] changeTags = new int[16];
+        private byte[] changeFields = new byte[16];
+        private Object[] before = new Object[16];
+        private Object[] after = new Object[16];
+        private int changeCount;
+
+        private Batch(String description) {
+            this.description = description;
+        }
+
+        public void set(ID3Tag tag, TagField field, String value) {
+            String old = tag.get(field);
+            int dirty = tag.dirtyState();
+            tag.set(field, value);
+            String current = tag.get(field);
+            if (!Objects.equals(old, current)) {
+                add(tag, dirty, (byte) field.ordinal(), old, current);
+            }
+        }
+
+        public void setArtwork(ID3Tag tag, ArtworkRef artwork) {
+            ArtworkRef old = tag.getArtwork();
+            if (old != artwork) {
+                add(tag, tag.dirtyState(), ARTWORK, old, artwork);
+                tag.setArtwork(artwork);
+            }
+        }
+
+        public boolean isEmpty() {
+            return changeCount == 0;
+        }
+
+        /**
+         * The number of tags changed so far.
+         */
+        public int size() {
+            return tagCount;
+        }
+
+        private void add(ID3Tag tag, int dirty, byte field, Object old, Object value) {
+            Integer index = tagIndex.get(tag);
+            if (index == null) {
+                index = tagCount;
+                tagIndex.put(tag, index);
+                if (tagCount == tags.length) {
+                    tags = Arrays.copyOf(tags, tagCount * 2);
+                    dirtyBefore = Arrays.copyOf(dirtyBefore, tagCount * 2);
+                }
+                tags[tagCount] = tag;
+                dirtyBefore[tagCount++] = dirty;
+            }
+            if (changeCount == changeTags.length) {
+                int capacity = changeCount * 2;
+                changeTags = Arrays.copyOf(changeTags, capacity);
+                changeFields = Arrays.copyOf(changeFields, capacity);
+                before = Arrays.copyOf(before, capacity);
+                after = Arrays.copyOf(after, capacity);
+            }
+            changeTags[changeCount] = index;
+            changeFields[changeCount] = field;
+            before[changeCount] = old;
+            after[changeCount++] = value;
+        }
+    }
+
+    private final long budget;
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+    private long size;
+
+    /**
+     * @param budget the estimated number of bytes the history may keep alive
+     */
+    public EditHistory(long budget) {
+        this.budget = budget;
+    }
+
+    public Batch begin(String description) {
+        return new Batch(description);
+    }
+
+    /**
+     * Records the changes made through {@code batch} as one step and clears the redo history.
+     * Returns {@code false} if nothing changed or the step alone exceeds the memory budget, in
+     * which case it cannot be undone.
+     */
+    public boolean commit(Batch batch) {
+        if (batch.isEmpty()) {
+            return false;
+        }
+        redoSteps.forEach(dropped -> size -= dropped.size);
+        redoSteps.clear();
+        Step step = new Step(batch);
+        step.size = estimateSize(step);
+        undoSteps.push(step);
+        size += step.size;
+        while (size > budget && !undoSteps.isEmpty()) {
+            size -= undoSteps.removeLast().size;
+        }
+        return !undoSteps.isEmpty() && undoSteps.peek() == step;
+    }
+
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    public String getUndoDescription() {
+        return canUndo() ? undoSteps.peek().description : null;
+    }
+
+    public String getRedoDescription() {
+        return canRedo() ? redoSteps.peek().description : null;
+    }
+
+    /**
+     * Reverts the latest step and returns the tags it touched.
+     */
+    public List<ID3Tag> undo() {
+        Step step = undoSteps.pop();
+        step.apply(true);
+        redoSteps.push(step);
+        return Arrays.asList(step.tags);
+    }
+
+    /**
+     * Applies the latest undone step again and returns the tags it touched.
+     */
+    public List<ID3Tag> redo() {
+        Step step = redoSteps.pop();
+        step.apply(false);
+        undoSteps.push(step);
+        return Arrays.asList(step.tags);
+    }
+
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        size = 0;
+    }
+
+    /**
+     * The estimated number of bytes kept alive by the recorded steps.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    private static long estimateSize(Step step) {
+        long size = STEP_OVERHEAD + step.tags.length * TAG_OVERHEAD + step.changeTags.length * CHANGE_OVERHEAD;
+        // Covers are counted once per step however many files share them; embedded ones are
+        // only a handle to the bytes in the file.
+        Map<ArtworkRef, Boolean> covers = null;
+        for (int i = 0; i < step.changeTags.length; i++) {
+            if (step.changeFields[i] == ARTWORK) {
+                if (covers == null) {
+                    covers = new IdentityHashMap<>();
+                }
+                size += coverSize((ArtworkRef) step.before[i], covers) + coverSize((ArtworkRef) step.after[i], covers);
+            } else {
+                // Shared values are interned, so runs of the same string are counted once.
+                if (step.before[i] != null && (i == 0 || step.before[i] != step.before[i - 1])) {
+                    size += STRING_OVERHEAD + ((String) step.before[i]).length();
+                }
+                if (step.after[i] != null && (i == 0 || step.after[i] != step.after[i - 1])) {
+                    size += STRING_OVERHEAD + ((String) step.after[i]).length();
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long coverSize(ArtworkRef artwork, Map<ArtworkRef, Boolean> counted) {
+        if (artwork == null || artwork.isEmbedded() || counted.put(artwork, Boolean.TRUE) != null) {
+            return 0;
+        }
+        return artwork.getData().length;
+    }
+}
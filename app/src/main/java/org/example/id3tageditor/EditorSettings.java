@@ -0,0 +1,129 @@
+package org.example.id3tageditor;
+
+import java.util.Locale;
+
+/**
+ * Tunables read from system properties ({@code -Dtunelabel.<name>=<value>}), so they can be
+ * set in the launcher or on the command line.
+ */
+public final class EditorSettings {
+
+    /**
+     * The kind of disk the library lives on. Solid-state disks handle many concurrent writes
+     * well; on spinning disks parallel writes mostly add seeks, so files are saved one by one.
+     */
+    public enum StorageProfile {
+        SSD(Math.min(8, Runtime.getRuntime().availableProcessors())),
+        HDD(1);
+
+        private final int saveParallelism;
+
+        StorageProfile(int saveParallelism) {
+            this.saveParallelism = Math.max(1, saveParallelism);
+        }
+
+        public int getSaveParallelism() { return saveParallelism; }
+    }
+
+    private EditorSettings() {
+    }
+
+    public static StorageProfile storageProfile() {
+        String value = System.getProperty("tunelabel.storage", StorageProfile.SSD.name());
+        try {
+            return StorageProfile.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring invalid value for tunelabel.storage: " + value);
+            return StorageProfile.SSD;
+        }
+    }
+
+    /**
+     * Number of files saved concurrently; {@code tunelabel.saveThreads} overrides the default
+     * of the storage profile.
+     */
+    public static int saveParallelism() {
+        return Math.max(1, intProperty("tunelabel.saveThreads", storageProfile().getSaveParallelism()));
+    }
+
+    /**
+     * Bytes of padding reserved after the ID3v2 frames whenever a tag has to be rewritten,
+     * so that later edits can be written in place.
+     */
+    public static int tagPadding() {
+        return intProperty("tunelabel.tagPadding", 4096);
+    }
+
+    /**
+     * Longest edge, in pixels, that covers are scaled down to by the Shrink artwork action.
+     */
+    public static int artworkMaxDimension() {
+        return Math.max(1, intProperty("tunelabel.artworkMaxSize", 600));
+    }
+
+    /**
+     * JPEG quality, from 1 to 100, that covers are re-encoded at by the Shrink artwork action.
+     */
+    public static float artworkQuality() {
+        return Math.min(100, Math.max(1, intProperty("tunelabel.artworkQuality", 85))) / 100f;
+    }
+
+    /**
+     * How many levels of subfolders Open Folder descends into.
+     */
+    public static int scanDepth() {
+        return Math.max(0, intProperty("tunelabel.scanDepth", 16));
+    }
+
+    /**
+     * Megabytes of memory the undo history may keep alive before it forgets the oldest edits.
+     */
+    public static long undoMemory() {
+        return Math.max(0, intProperty("tunelabel.undoMemory", 32)) * 1024L * 1024L;
+    }
+
+    /**
+     * Whether edits are saved automatically in the background ({@code tunelabel.writeBehind}),
+     * rather than only when Save is pressed. Can also be switched on in the window.
+     */
+    public static boolean writeBehind() {
+        return Boolean.getBoolean("tunelabel.writeBehind");
+    }
+
+    /**
+     * Milliseconds a file must go without edits before it is saved in the background.
+     */
+    public static long writeBehindDelay() {
+        return Math.max(0, intProperty("tunelabel.writeDelay", 2000));
+    }
+
+    /**
+     * Whether start-up milestones are printed for the startup benchmark
+     * ({@code tunelabel.startupTrace}).
+     */
+    public static boolean startupTrace() {
+        return Boolean.getBoolean("tunelabel.startupTrace");
+    }
+
+    /**
+     * Whether this is the training run that records which classes go into the class-data
+     * sharing archive of the packaged image ({@code tunelabel.trainingRun}). The editor quits
+     * once it has opened the files it was started with.
+     */
+    public static boolean trainingRun() {
+        return Boolean.getBoolean("tunelabel.trainingRun");
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+}
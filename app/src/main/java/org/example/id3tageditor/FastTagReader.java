@@ -0,0 +1,389 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.tag.reference.GenreTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the text fields of an MP3 straight from its ID3v2 tag, or from the ID3v1 block when there
+ * is no v2 tag, using a few positioned reads and without touching the audio stream. Returns
+ * {@code null} when the tag uses something this reader does not handle (unsynchronisation,
+ * compression, encryption, a malformed frame); callers then fall back to a full read.
+ */
+final class FastTagReader {
+
+    private static final int HEADER_SIZE = 10;
+    private static final int INITIAL_READ = 64 * 1024;
+    private static final int ID3V1_SIZE = 128;
+    private static final Pattern GENRE_ID = Pattern.compile("\\(?(\\d{1,3})\\)?");
+
+    private static final Map<String, TagField> TEXT_FRAMES = Map.ofEntries(
+            Map.entry("TIT2", TagField.TITLE),
+            Map.entry("TPE1", TagField.ARTIST),
+            Map.entry("TALB", TagField.ALBUM),
+            Map.entry("TCON", TagField.GENRE),
+            Map.entry("TENC", TagField.ENCODER),
+            Map.entry("TCOM", TagField.COMPOSER),
+            Map.entry("TEXT", TagField.LYRICIST),
+            Map.entry("TPUB", TagField.PUBLISHER),
+            Map.entry("TCOP", TagField.COPYRIGHT),
+            Map.entry("TBPM", TagField.BPM),
+            Map.entry("TSRC", TagField.ISRC));
+
+    private static final Map<String, String> V22_FRAME_IDS = Map.ofEntries(
+            Map.entry("TT2", "TIT2"),
+            Map.entry("TP1", "TPE1"),
+            Map.entry("TAL", "TALB"),
+            Map.entry("TYE", "TYER"),
+            Map.entry("TCO", "TCON"),
+            Map.entry("TEN", "TENC"),
+            Map.entry("TCM", "TCOM"),
+            Map.entry("TXT", "TEXT"),
+            Map.entry("TPB", "TPUB"),
+            Map.entry("TCR", "TCOP"),
+            Map.entry("TBP", "TBPM"),
+            Map.entry("TRC", "TSRC"),
+            Map.entry("TRK", "TRCK"),
+            Map.entry("TPA", "TPOS"),
+            Map.entry("COM", "COMM"),
+            Map.entry("ULT", "USLT"),
+            Map.entry("PIC", "APIC"));
+
+    private static final Set<String> NUMBERED_AND_DESCRIBED_FRAMES = Set.of("TRCK", "TPOS", "COMM", "USLT", "TYER", "TDRC");
+
+    private FastTagReader() {
+    }
+
+    /**
+     * Returns the byte offset where the audio starts, i.e. the total size of a leading ID3v2 tag,
+     * or 0 when the file does not start with one.
+     */
+    static long audioStart(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return audioStart(channel);
+        }
+    }
+
+    static long audioStart(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 0, HEADER_SIZE);
+        return isId3v2Header(header) ? tagSize(header) : 0;
+    }
+
+    /**
+     * Returns the byte offset where the audio ends: before a trailing ID3v1 block, if there is one.
+     */
+    static long audioEnd(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < ID3V1_SIZE) {
+            return fileSize;
+        }
+        ByteBuffer marker = read(channel, fileSize - ID3V1_SIZE, 3);
+        boolean id3v1 = marker.limit() == 3 && marker.get(0) == 'T' && marker.get(1) == 'A' && marker.get(2) == 'G';
+        return id3v1 ? fileSize - ID3V1_SIZE : fileSize;
+    }
+
+    static ID3Tag read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer head = read(channel, 0, (int) Math.min(INITIAL_READ, fileSize));
+
+            ID3Tag tag = new ID3Tag();
+            tag.setFilePath(file.getAbsolutePath());
+            tag.setFileLength(fileSize);
+
+            if (isId3v2Header(head)) {
+                if (!readId3v2(channel, head, tag)) {
+                    return null;
+                }
+                fillMissingFields(tag);
+            } else if (readId3v1(channel, fileSize, tag)) {
+                fillMissingFields(tag);
+            }
+            return tag;
+        }
+    }
+
+    private static void fillMissingFields(ID3Tag tag) {
+        for (TagField field : TagField.values()) {
+            if (tag.get(field) == null) {
+                tag.set(field, "");
+            }
+        }
+    }
+
+    private static boolean readId3v2(FileChannel channel, ByteBuffer head, ID3Tag tag) throws IOException {
+        int version = head.get(3);
+        int flags = head.get(5) & 0xFF;
+        long end = HEADER_SIZE + syncsafe(head.getInt(6));
+        if (version < 2 || version > 4 || (flags & 0x80) != 0 || (version == 2 && (flags & 0x40) != 0)) {
+            return false;
+        }
+
+        long pos = HEADER_SIZE;
+        if (version >= 3 && (flags & 0x40) != 0) {
+            int extendedSize = bytes(channel, head, pos, 4).getInt();
+            pos += version == 4 ? syncsafe(extendedSize) : extendedSize + 4;
+        }
+
+        int idLength = version == 2 ? 3 : 4;
+        int frameHeaderSize = version == 2 ? 6 : 10;
+        Set<TagField> seen = EnumSet.noneOf(TagField.class);
+        while (pos + frameHeaderSize <= end) {
+            ByteBuffer frameHeader = bytes(channel, head, pos, frameHeaderSize);
+            if (frameHeader.get(0) == 0) {
+                break;
+            }
+            byte[] idBytes = new byte[idLength];
+            frameHeader.get(idBytes);
+            String id = new String(idBytes, StandardCharsets.ISO_8859_1);
+            if (!id.chars().allMatch(c -> (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+
+            int size;
+            int formatFlags = 0;
+            if (version == 2) {
+                size = ((frameHeader.get() & 0xFF) << 16) | ((frameHeader.get() & 0xFF) << 8) | (frameHeader.get() & 0xFF);
+            } else {
+                size = frameHeader.getInt();
+                if (version == 4) {
+                    size = syncsafe(size);
+                }
+                frameHeader.get();
+                formatFlags = frameHeader.get() & 0xFF;
+            }
+            long bodyStart = pos + frameHeaderSize;
+            if (size < 0 || bodyStart + size > end) {
+                return false;
+            }
+            pos = bodyStart + size;
+
+            String key = version == 2 ? V22_FRAME_IDS.get(id) : id;
+            if (key == null) {
+                continue;
+            }
+            if ("APIC".equals(key)) {
+                if (tag.getArtwork() == null) {
+                    tag.setArtwork(ArtworkRef.embedded());
+                }
+                continue;
+            }
+            if (!TEXT_FRAMES.containsKey(key) && !NUMBERED_AND_DESCRIBED_FRAMES.contains(key)) {
+                continue;
+            }
+
+            int skip = 0;
+            if (version == 3) {
+                if ((formatFlags & 0xC0) != 0) {
+                    return false;
+                }
+                skip = (formatFlags & 0x20) != 0 ? 1 : 0;
+            } else if (version == 4) {
+                if ((formatFlags & 0x0E) != 0) {
+                    return false;
+                }
+                skip = ((formatFlags & 0x40) != 0 ? 1 : 0) + ((formatFlags & 0x01) != 0 ? 4 : 0);
+            }
+            if (size <= skip) {
+                continue;
+            }
+            ByteBuffer body = bytes(channel, head, bodyStart + skip, size - skip);
+            applyFrame(key, version, body, tag, seen);
+        }
+        return true;
+    }
+
+    private static void applyFrame(String id, int version, ByteBuffer body, ID3Tag tag, Set<TagField> seen) {
+        switch (id) {
+            case "TRCK" -> applyNumberPair(text(body), TagField.TRACK, TagField.TRACK_TOTAL, tag, seen);
+            case "TPOS" -> applyNumberPair(text(body), TagField.DISK, TagField.DISK_TOTAL, tag, seen);
+            case "COMM" -> applyOnce(TagField.COMMENT, describedText(body), tag, seen);
+            case "USLT" -> applyOnce(TagField.LYRICS, describedText(body), tag, seen);
+            case "TYER" -> {
+                if (version < 4) {
+                    applyOnce(TagField.YEAR, text(body), tag, seen);
+                }
+            }
+            case "TDRC" -> {
+                if (version == 4) {
+                    applyOnce(TagField.YEAR, text(body), tag, seen);
+                }
+            }
+            default -> {
+                TagField field = TEXT_FRAMES.get(id);
+                if (field == TagField.GENRE) {
+                    applyOnce(field, genreName(text(body)), tag, seen);
+                } else if (field != null) {
+                    applyOnce(field, text(body), tag, seen);
+                }
+            }
+        }
+    }
+
+    private static void applyOnce(TagField field, String value, ID3Tag tag, Set<TagField> seen) {
+        if (seen.add(field)) {
+            tag.set(field, value);
+        }
+    }
+
+    private static void applyNumberPair(String value, TagField number, TagField total, ID3Tag tag, Set<TagField> seen) {
+        if (!seen.add(number)) {
+            return;
+        }
+        seen.add(total);
+        int slash = value.indexOf('/');
+        tag.set(number, (slash >= 0 ? value.substring(0, slash) : value).trim());
+        tag.set(total, slash >= 0 ? value.substring(slash + 1).trim() : "");
+    }
+
+    static String genreName(String value) {
+        Matcher matcher = GENRE_ID.matcher(value.trim());
+        if (matcher.matches()) {
+            String name = GenreTypes.getInstanceOf().getValueForId(Integer.parseInt(matcher.group(1)));
+            if (name != null) {
+                return name;
+            }
+        }
+        return value;
+    }
+
+    private static String text(ByteBuffer body) {
+        Charset charset = charset(body.get());
+        return decode(body, charset);
+    }
+
+    private static String describedText(ByteBuffer body) {
+        Charset charset = charset(body.get());
+        if (body.remaining() < 3) {
+            return "";
+        }
+        body.position(body.position() + 3);
+        skipTerminated(body, charset);
+        return decode(body, charset);
+    }
+
+    private static Charset charset(byte encoding) {
+        return switch (encoding) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+    }
+
+    private static boolean isWide(Charset charset) {
+        return charset == StandardCharsets.UTF_16 || charset == StandardCharsets.UTF_16BE;
+    }
+
+    private static void skipTerminated(ByteBuffer body, Charset charset) {
+        if (isWide(charset)) {
+            while (body.remaining() >= 2) {
+                byte first = body.get();
+                byte second = body.get();
+                if (first == 0 && second == 0) {
+                    return;
+                }
+            }
+            body.position(body.limit());
+        } else {
+            while (body.hasRemaining()) {
+                if (body.get() == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes up to the first terminator, which also yields the first value of a v2.4
+     * multi-value frame.
+     */
+    private static String decode(ByteBuffer body, Charset charset) {
+        int start = body.position();
+        int end = start;
+        if (isWide(charset)) {
+            while (end + 1 < body.limit() && !(body.get(end) == 0 && body.get(end + 1) == 0)) {
+                end += 2;
+            }
+        } else {
+            while (end < body.limit() && body.get(end) != 0) {
+                end++;
+            }
+        }
+        byte[] bytes = new byte[end - start];
+        body.get(start, bytes);
+        return new String(bytes, charset).trim();
+    }
+
+    private static boolean readId3v1(FileChannel channel, long fileSize, ID3Tag tag) throws IOException {
+        if (fileSize < ID3V1_SIZE) {
+            return false;
+        }
+        ByteBuffer block = read(channel, fileSize - ID3V1_SIZE, ID3V1_SIZE);
+        if (block.get(0) != 'T' || block.get(1) != 'A' || block.get(2) != 'G') {
+            return false;
+        }
+        tag.set(TagField.TITLE, latin1(block, 3, 30));
+        tag.set(TagField.ARTIST, latin1(block, 33, 30));
+        tag.set(TagField.ALBUM, latin1(block, 63, 30));
+        tag.set(TagField.YEAR, latin1(block, 93, 4));
+        boolean v11 = block.get(125) == 0 && block.get(126) != 0;
+        tag.set(TagField.COMMENT, latin1(block, 97, v11 ? 28 : 30));
+        tag.set(TagField.TRACK, v11 ? String.valueOf(block.get(126) & 0xFF) : "");
+        String genre = GenreTypes.getInstanceOf().getValueForId(block.get(127) & 0xFF);
+        tag.set(TagField.GENRE, genre != null ? genre : "");
+        return true;
+    }
+
+    private static String latin1(ByteBuffer block, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && block.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - offset];
+        block.get(offset, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1).trim();
+    }
+
+    private static boolean isId3v2Header(ByteBuffer header) {
+        return header.limit() >= HEADER_SIZE && header.get(0) == 'I' && header.get(1) == 'D' && header.get(2) == '3';
+    }
+
+    private static long tagSize(ByteBuffer header) {
+        boolean footer = (header.get(5) & 0x10) != 0 && header.get(3) == 4;
+        return HEADER_SIZE + syncsafe(header.getInt(6)) + (footer ? HEADER_SIZE : 0);
+    }
+
+    private static int syncsafe(int value) {
+        return ((value >> 3) & 0x0FE00000) | ((value >> 2) & 0x001FC000) | ((value >> 1) & 0x00003F80) | (value & 0x7F);
+    }
+
+    private static ByteBuffer bytes(FileChannel channel, ByteBuffer head, long pos, int length) throws IOException {
+        if (pos + length <= head.limit()) {
+            return head.slice((int) pos, length);
+        }
+        return read(channel, pos, length);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long pos, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) {
+                break;
+            }
+        }
+        TagMetrics.global().addBytesRead(buffer.position());
+        return buffer.flip();
+    }
+}
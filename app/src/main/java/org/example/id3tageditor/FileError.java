@@ -0,0 +1,19 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+
+public record FileError(File file, String message) {
+
+    public static FileError of(File file, Throwable error) {
+        String message = error.getMessage();
+        if (message == null || message.isBlank()) {
+            message = error.getClass().getSimpleName();
+        }
+        return new FileError(file, message);
+    }
+
+    @Override
+    public String toString() {
+        return file.getName() + ": " + message;
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.id3tageditor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A file name template such as {@code %artist%/%album%/%track% - %title%}. Placeholders name a
+ * {@link TagField} as in {@link TagRule}; {@code /} starts a subfolder, and the extension is
+ * never part of the pattern. {@link #format} turns a tag into a relative path and {@link #parse}
+ * reads tag values back out of a file's path. When parsing, {@code %*%} skips a part of the name.
+ */
+public final class FilenamePattern {
+
+    public static final String DEFAULT_RENAME = "%artist%/%album%/%track% - %title%";
+    public static final String DEFAULT_PARSE = "%artist% - %album%/%track% - %title%";
+
+    private static final String SKIP = "*";
+    private static final Pattern ILLEGAL = Pattern.compile("[\\\\/:*?\"<>|\\p{Cntrl}]");
+    private static final int MAX_SEGMENT_LENGTH = 200;
+
+    private final String text;
+    // Literal text and placeholders in order; a placeholder is a TagField or null for %*%.
+    private final List<String> literals = new ArrayList<>();
+    private final List<TagField> fields = new ArrayList<>();
+    private final Pattern regex;
+
+    private FilenamePattern(String text) {
+        this.text = text;
+        StringBuilder regex = new StringBuilder("(?:^|/)");
+        int position = 0;
+        while (true) {
+            int open = text.indexOf('%', position);
+            String literal = text.substring(position, open < 0 ? text.length() : open);
+            literals.add(literal);
+            regex.append(Pattern.quote(literal));
+            if (open < 0) {
+                break;
+            }
+            int close = text.indexOf('%', open + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + (open + 1));
+            }
+            String name = text.substring(open + 1, close);
+            fields.add(name.equals(SKIP) ? null : TagRule.field(name));
+            regex.append("([^/]*?)");
+            position = close + 1;
+        }
+        regex.append('$');
+        this.regex = Pattern.compile(regex.toString());
+    }
+
+    public static FilenamePattern compile(String text) {
+        String trimmed = text.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("/") || trimmed.endsWith("/")) {
+            throw new IllegalArgumentException("The pattern must name a file, relative to a folder");
+        }
+        for (String segment : trimmed.split("/")) {
+            if (segment.isBlank() || segment.equals(".") || segment.equals("..")) {
+                throw new IllegalArgumentException("Invalid folder in pattern: '" + segment + "'");
+            }
+        }
+        return new FilenamePattern(trimmed);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * The relative path, with {@code /} separators and without extension, that this pattern gives
+     * a tag, or {@code null} if one of the named fields is empty. Characters that are not allowed
+     * in file names are replaced and the track and disk numbers are padded to two digits.
+     */
+    public String format(ID3Tag tag) {
+        StringBuilder path = new StringBuilder(literals.get(0));
+        for (int i = 0; i < fields.size(); i++) {
+            TagField field = fields.get(i);
+            if (field == null) {
+                throw new IllegalArgumentException("%" + SKIP + "% can only be used to read tags from file names");
+            }
+            String value = tag.get(field);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            value = value.strip();
+            if ((field == TagField.TRACK || field == TagField.DISK) && value.length() == 1 && Character.isDigit(value.charAt(0))) {
+                value = "0" + value;
+            }
+            path.append(clean(value)).append(literals.get(i + 1));
+        }
+        return path.toString();
+    }
+
+    /**
+     * Reads field values out of the end of a path (any separators, extension optional). Returns
+     * {@code null} if the path does not fit the pattern.
+     */
+    public Map<TagField, String> parse(String path) {
+        String name = path.replace('\\', '/');
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        if (dot > slash + 1) {
+            name = name.substring(0, dot);
+        }
+        Matcher matcher = regex.matcher(name);
+        if (!matcher.find()) {
+            return null;
+        }
+        Map<TagField, String> values = new EnumMap<>(TagField.class);
+        for (int i = 0; i < fields.size(); i++) {
+            TagField field = fields.get(i);
+            if (field == null) {
+                continue;
+            }
+            String value = matcher.group(i + 1).strip();
+            if ((field == TagField.TRACK || field == TagField.DISK) && value.matches("\\d{1,9}")) {
+                value = String.valueOf(Integer.parseInt(value));
+            }
+            values.put(field, value);
+        }
+        return values;
+    }
+
+    private static String clean(String value) {
+        String cleaned = ILLEGAL.matcher(value).replaceAll("_");
+        if (cleaned.length() > MAX_SEGMENT_LENGTH) {
+            cleaned = cleaned.substring(0, MAX_SEGMENT_LENGTH);
+        }
+        // Windows drops trailing dots and spaces, and a leading dot would hide the file.
+        cleaned = cleaned.replaceAll("[. ]+$", "").replaceFirst("^\\.", "_");
+        return cleaned.isEmpty() ? "_" : cleaned;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.id3tageditor;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asks for a {@link FilenamePattern} and previews what it would do to every selected file before
+ * anything is applied: the moves of a batch rename, or the values read from file names.
+ */
+public abstract class FilenamePatternDialog<T> extends Dialog<T> {
+
+    protected record Row(String file, String result, String status) {
+    }
+
+    protected record Preview<T>(List<Row> rows, int applicable, T result) {
+    }
+
+    private final TextField patternField = new TextField();
+    private final Label summaryLabel = new Label();
+    private final TableView<Row> previewTable = new TableView<>();
+    private final PauseTransition refreshDelay = new PauseTransition(Duration.millis(250));
+    private final VBox content;
+    private Preview<T> current;
+
+    private FilenamePatternDialog(Window owner, String title, String header, String pattern, String resultColumn) {
+        initOwner(owner);
+        setTitle(title);
+        setHeaderText(header);
+        setResizable(true);
+        getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        previewTable.getColumns().addAll(List.of(
+                column("File", Row::file, 260), column(resultColumn, Row::result, 360), column("Status", Row::status, 160)));
+        previewTable.setPrefHeight(360);
+        VBox.setVgrow(previewTable, Priority.ALWAYS);
+
+        patternField.setText(pattern);
+        HBox.setHgrow(patternField, Priority.ALWAYS);
+        // Previews can touch the disk for thousands of files, so wait for a pause in typing.
+        refreshDelay.setOnFinished(event -> refresh());
+        patternField.textProperty().addListener((obs, oldText, newText) -> refreshDelay.playFromStart());
+
+        Label help = new Label("Placeholders: %title%, %artist%, %album%, %track%, %year%, %genre%, %disk%... "
+                + "Use / for folders; the extension is kept.");
+        help.setWrapText(true);
+        content = new VBox(8, new HBox(8, new Label("Pattern:"), patternField), help);
+        content.setPadding(new Insets(10));
+        getDialogPane().setContent(content);
+        getDialogPane().setPrefWidth(820);
+        setResultConverter(button -> button == ButtonType.OK && current != null ? current.result() : null);
+    }
+
+    private static TableColumn<Row, String> column(String title, Function<Row, String> value, double width) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    protected abstract Preview<T> preview(FilenamePattern pattern);
+
+    /**
+     * Adds the preview below any extra options and computes it for the initial pattern.
+     */
+    protected void finishLayout(Node... options) {
+        content.getChildren().addAll(options);
+        content.getChildren().addAll(previewTable, summaryLabel);
+        refresh();
+    }
+
+    protected void refresh() {
+        Button okButton = (Button) getDialogPane().lookupButton(ButtonType.OK);
+        try {
+            current = preview(FilenamePattern.compile(patternField.getText()));
+            previewTable.setItems(FXCollections.observableList(current.rows()));
+            summaryLabel.setText(current.applicable() + " of " + current.rows().size() + " file(s) will be changed.");
+            okButton.setDisable(current.applicable() == 0);
+        } catch (IllegalArgumentException e) {
+            current = null;
+            previewTable.setItems(FXCollections.emptyObservableList());
+            summaryLabel.setText(e.getMessage());
+            okButton.setDisable(true);
+        }
+    }
+
+    /**
+     * Previews renaming {@code tags} to a pattern, optionally into another folder, and returns
+     * the plan if the user accepts it.
+     */
+    public static Optional<RenamePlan> showRename(Window owner, List<ID3Tag> tags) {
+        return new RenameDialog(owner, tags).showAndWait();
+    }
+
+    /**
+     * Previews reading tag values out of the file names of {@code tags} and returns the values to
+     * set on each tag whose name fits the pattern, if the user accepts them.
+     */
+    public static Optional<Map<ID3Tag, Map<TagField, String>>> showTagging(Window owner, List<ID3Tag> tags) {
+        return new TaggingDialog(owner, tags).showAndWait();
+    }
+
+    private static final class RenameDialog extends FilenamePatternDialog<RenamePlan> {
+
+        private static final String OWN_FOLDER = "Each file's current folder";
+
+        private final List<ID3Tag> tags;
+        private final Label folderLabel = new Label(OWN_FOLDER);
+        private Path root;
+
+        RenameDialog(Window owner, List<ID3Tag> tags) {
+            super(owner, "Rename Files", "Rename or move " + tags.size() + " file(s) according to their tags.",
+                    FilenamePattern.DEFAULT_RENAME, "New name");
+            this.tags = tags;
+
+            Button browseButton = new Button("Choose...");
+            browseButton.setOnAction(event -> {
+                DirectoryChooser chooser = new DirectoryChooser();
+                chooser.setTitle("Move Files Into");
+                File folder = chooser.showDialog(getDialogPane().getScene().getWindow());
+                if (folder != null) {
+                    setRoot(folder.toPath().toAbsolutePath().normalize());
+                }
+            });
+            Button resetButton = new Button("Reset");
+            resetButton.setOnAction(event -> setRoot(null));
+            HBox folderRow = new HBox(8, new Label("Relative to:"), folderLabel, browseButton, resetButton);
+            folderRow.setAlignment(Pos.CENTER_LEFT);
+            finishLayout(folderRow);
+        }
+
+        private void setRoot(Path root) {
+            this.root = root;
+            folderLabel.setText(root != null ? root.toString() : OWN_FOLDER);
+            refresh();
+        }
+
+        @Override
+        protected Preview<RenamePlan> preview(FilenamePattern pattern) {
+            RenamePlan plan = RenamePlan.create(tags, pattern, root);
+            List<Row> rows = new ArrayList<>(plan.getEntries().size());
+            for (RenamePlan.Entry entry : plan.getEntries()) {
+                Path base = root != null ? root : entry.source().getParent();
+                String target = entry.target() != null ? base.relativize(entry.target()).toString() : "";
+                rows.add(new Row(entry.source().getFileName().toString(), target, entry.status().getDescription()));
+            }
+            return new Preview<>(rows, plan.getMoves().size(), plan);
+        }
+    }
+
+    private static final class TaggingDialog extends FilenamePatternDialog<Map<ID3Tag, Map<TagField, String>>> {
+
+        private final List<ID3Tag> tags;
+
+        TaggingDialog(Window owner, List<ID3Tag> tags) {
+            super(owner, "Tags from File Names", "Fill in tags of " + tags.size() + " file(s) from their names and folders.",
+                    FilenamePattern.DEFAULT_PARSE, "Values");
+            this.tags = tags;
+            finishLayout();
+        }
+
+        @Override
+        protected Preview<Map<ID3Tag, Map<TagField, String>>> preview(FilenamePattern pattern) {
+            List<Row> rows = new ArrayList<>(tags.size());
+            Map<ID3Tag, Map<TagField, String>> changes = new LinkedHashMap<>();
+            for (ID3Tag tag : tags) {
+                Map<TagField, String> values = pattern.parse(tag.getFilePath());
+                String result = "";
+                String status;
+                if (values == null) {
+                    status = "Does not match";
+                } else {
+                    result = values.entrySet().stream()
+                            .map(value -> value.getKey().getPropertyName() + ": " + value.getValue())
+                            .collect(Collectors.joining("; "));
+                    values.entrySet().removeIf(value -> Objects.equals(value.getValue(), tag.get(value.getKey())));
+                    if (values.isEmpty()) {
+                        status = "No change";
+                    } else {
+                        status = values.size() + " field(s) change";
+                        changes.put(tag, values);
+                    }
+                }
+                rows.add(new Row(tag.getFileName(), result, status));
+            }
+            return new Preview<>(rows, changes.size(), changes);
+        }
+    }
+}
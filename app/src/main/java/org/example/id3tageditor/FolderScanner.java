@@ -0,0 +1,130 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.audio.SupportedFileFormat;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Walks a folder tree for audio files in every format jaudiotagger supports, handing each one to
+ * a sink as soon as it is found. Subfolders are scanned in parallel on a fork/join pool.
+ * Symbolic links are followed, but every directory is visited at most once, which also breaks
+ * link loops. Folders that cannot be read are recorded in {@link #getErrors()} and skipped.
+ */
+public class FolderScanner {
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Arrays.stream(SupportedFileFormat.values())
+            .map(format -> format.getFilesuffix().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final int maxDepth;
+    private final int parallelism;
+
+    private final Set<Object> visited = ConcurrentHashMap.newKeySet();
+    private final Queue<FileError> errors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param maxDepth how many levels of subfolders below the root to descend into
+     */
+    public FolderScanner(int maxDepth, int parallelism) {
+        this.maxDepth = Math.max(0, maxDepth);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static boolean isSupported(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && SUPPORTED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * File chooser patterns ({@code *.mp3}, ...) for every supported format, sorted.
+     */
+    public static List<String> extensionPatterns() {
+        return SUPPORTED_EXTENSIONS.stream().sorted().map(extension -> "*." + extension).toList();
+    }
+
+    /**
+     * Scans {@code root} and blocks until the whole tree has been walked. The sink may be
+     * called from several threads at once; an unchecked exception thrown by it stops the scan
+     * and is rethrown here. It is called on the pool's worker threads, so a sink that waits
+     * should do so through {@link ForkJoinPool#managedBlock}, letting the pool keep scanning.
+     */
+    public void scan(Path root, Consumer<? super Path> sink) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            throw new IOException("Not a folder: " + root);
+        }
+        visited.add(keyOf(root, attributes));
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            pool.invoke(new DirectoryScan(root, 0, sink));
+        }
+    }
+
+    public List<FileError> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    private static Object keyOf(Path directory, BasicFileAttributes attributes) throws IOException {
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey : directory.toRealPath();
+    }
+
+    private final class DirectoryScan extends RecursiveAction {
+
+        private final Path directory;
+        private final int depth;
+        private final Consumer<? super Path> sink;
+
+        DirectoryScan(Path directory, int depth, Consumer<? super Path> sink) {
+            this.directory = directory;
+            this.depth = depth;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryScan> subfolders = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        // Typically a dangling symbolic link.
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        if (depth < maxDepth && visited.add(keyOf(entry, attributes))) {
+                            subfolders.add(new DirectoryScan(entry, depth + 1, sink));
+                        }
+                    } else if (attributes.isRegularFile() && isSupported(entry)) {
+                        sink.accept(entry);
+                    }
+                }
+            } catch (IOException e) {
+                errors.add(FileError.of(directory.toFile(), e));
+            } catch (DirectoryIteratorException e) {
+                // Reading the folder failed part way; what was listed before is kept.
+                errors.add(FileError.of(directory.toFile(), e.getCause()));
+            }
+            invokeAll(subfolders);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.example.id3tageditor;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One loaded file. Field values are kept in a dense array indexed by {@link TagField}; a JavaFX
+ * property is only created for a field once a column or editor asks for it, and from then on
+ * the property holds that field's value.
+ * <p>
+ * Changes made through {@link #set} and {@link #setArtwork} are tracked as dirty until
+ * {@link #markClean()} is called after the tag has been read or saved.
+ */
+public class ID3Tag {
+
+    private static final TagField[] FIELDS = TagField.values();
+
+    private String filePath;
+    private final String[] values = new String[FIELDS.length];
+    private StringProperty[] properties;
+    private StringProperty fileName;
+
+    private long fileLength = -1;
+    private int trackLength = -1;
+    private String bitrate;
+    private String mimeType;
+
+    private ArtworkRef artwork;
+    private int dirtyFields;
+    private boolean artworkDirty;
+    // Incremented by markClean(), so an undo can tell whether the tag was saved in between.
+    private int cleanVersion;
+
+
+    public String get(TagField field) {
+        if (properties != null && properties[field.ordinal()] != null) {
+            return properties[field.ordinal()].get();
+        }
+        return values[field.ordinal()];
+    }
+
+    public void set(TagField field, String value) {
+        if (value != null && (field.isShared() || value.isEmpty())) {
+            value = value.intern();
+        }
+        if (!Objects.equals(get(field), value)) {
+            dirtyFields |= 1 << field.ordinal();
+        }
+        if (properties != null && properties[field.ordinal()] != null) {
+            properties[field.ordinal()].set(value);
+        } else {
+            values[field.ordinal()] = value;
+        }
+    }
+
+    public boolean isDirty() {
+        return dirtyFields != 0 || artworkDirty;
+    }
+
+    public boolean isDirty(TagField field) {
+        return (dirtyFields & (1 << field.ordinal())) != 0;
+    }
+
+    public Set<TagField> getDirtyFields() {
+        Set<TagField> fields = EnumSet.noneOf(TagField.class);
+        for (TagField field : FIELDS) {
+            if (isDirty(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    public boolean isArtworkDirty() {
+        return artworkDirty;
+    }
+
+    public void markClean() {
+        dirtyFields = 0;
+        artworkDirty = false;
+        cleanVersion++;
+    }
+
+    int getCleanVersion() {
+        return cleanVersion;
+    }
+
+    /**
+     * The dirty flags packed into one int, artwork in the sign bit, for {@link EditHistory}.
+     */
+    int dirtyState() {
+        return artworkDirty ? dirtyFields | 1 << 31 : dirtyFields;
+    }
+
+    void restoreDirtyState(int state) {
+        dirtyFields = state & ~(1 << 31);
+        artworkDirty = state < 0;
+    }
+
+    /**
+     * A detached copy of this tag's values and dirty flags, for writing the file while this tag
+     * may go on being edited.
+     */
+    ID3Tag snapshot() {
+        ID3Tag copy = new ID3Tag();
+        copy.filePath = filePath;
+        for (TagField field : FIELDS) {
+            copy.values[field.ordinal()] = get(field);
+        }
+        copy.fileLength = fileLength;
+        copy.trackLength = trackLength;
+        copy.bitrate = bitrate;
+        copy.mimeType = mimeType;
+        copy.artwork = artwork;
+        copy.restoreDirtyState(dirtyState());
+        return copy;
+    }
+
+    /**
+     * Takes note that {@code saved}, a {@link #snapshot()} whose dirty flags were
+     * {@code savedState}, has been written: the fields that still hold the written values are
+     * clean again, while anything edited since stays dirty.
+     */
+    void markSaved(ID3Tag saved, int savedState) {
+        for (TagField field : FIELDS) {
+            int bit = 1 << field.ordinal();
+            if ((savedState & bit) != 0 && Objects.equals(get(field), saved.get(field))) {
+                dirtyFields &= ~bit;
+            }
+        }
+        if (savedState < 0 && artwork == saved.artwork) {
+            artworkDirty = false;
+        }
+        if (saved.filePath.equals(filePath)) {
+            fileLength = saved.fileLength;
+        }
+        cleanVersion++;
+    }
+
+    /**
+     * Replaces this tag's contents with a fresh read of the same file, leaving it clean. Used
+     * when the file was changed by another program.
+     */
+    public void reload(ID3Tag source) {
+        for (TagField field : FIELDS) {
+            set(field, source.get(field));
+        }
+        fileLength = source.fileLength;
+        trackLength = source.trackLength;
+        bitrate = source.bitrate;
+        mimeType = source.mimeType;
+        artwork = source.artwork;
+        markClean();
+    }
+
+    public StringProperty property(TagField field) {
+        if (properties == null) {
+            properties = new StringProperty[FIELDS.length];
+        }
+        StringProperty property = properties[field.ordinal()];
+        if (property == null) {
+            property = new SimpleStringProperty(this, field.getPropertyName(), values[field.ordinal()]);
+            properties[field.ordinal()] = property;
+            values[field.ordinal()] = null;
+        }
+        return property;
+    }
+
+
+    public StringProperty fileNameProperty() {
+        if (fileName == null) {
+            fileName = new SimpleStringProperty(this, "fileName", getFileName());
+        }
+        return fileName;
+    }
+    public StringProperty titleProperty() { return property(TagField.TITLE); }
+    public StringProperty artistProperty() { return property(TagField.ARTIST); }
+    public StringProperty albumProperty() { return property(TagField.ALBUM); }
+    public StringProperty trackProperty() { return property(TagField.TRACK); }
+    public StringProperty yearProperty() { return property(TagField.YEAR); }
+    public StringProperty genreProperty() { return property(TagField.GENRE); }
+
+
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+        if (fileName != null) {
+            fileName.set(getFileName());
+        }
+    }
+
+    public String getFileName() {
+        return filePath != null ? new File(filePath).getName() : "";
+    }
+
+    public String getTitle() { return get(TagField.TITLE); }
+    public void setTitle(String title) { set(TagField.TITLE, title); }
+
+    public String getArtist() { return get(TagField.ARTIST); }
+    public void setArtist(String artist) { set(TagField.ARTIST, artist); }
+
+    public String getAlbum() { return get(TagField.ALBUM); }
+    public void setAlbum(String album) { set(TagField.ALBUM, album); }
+
+    public String getYear() { return get(TagField.YEAR); }
+    public void setYear(String year) { set(TagField.YEAR, year); }
+
+    public String getGenre() { return get(TagField.GENRE); }
+    public void setGenre(String genre) { set(TagField.GENRE, genre); }
+
+    public String getComment() { return get(TagField.COMMENT); }
+    public void setComment(String comment) { set(TagField.COMMENT, comment); }
+
+    public String getTrack() { return get(TagField.TRACK); }
+    public void setTrack(String track) { set(TagField.TRACK, track); }
+
+    public String getTrackTotal() { return get(TagField.TRACK_TOTAL); }
+    public void setTrackTotal(String trackTotal) { set(TagField.TRACK_TOTAL, trackTotal); }
+
+    public String getDisk() { return get(TagField.DISK); }
+    public void setDisk(String disk) { set(TagField.DISK, disk); }
+
+    public String getDiskTotal() { return get(TagField.DISK_TOTAL); }
+    public void setDiskTotal(String diskTotal) { set(TagField.DISK_TOTAL, diskTotal); }
+
+    public String getLyrics() { return get(TagField.LYRICS); }
+    public void setLyrics(String lyrics) { set(TagField.LYRICS, lyrics); }
+
+    public String getEncoder() { return get(TagField.ENCODER); }
+    public void setEncoder(String encoder) { set(TagField.ENCODER, encoder); }
+
+    public long getFileLength() { return fileLength; }
+    public void setFileLength(long fileLength) { this.fileLength = fileLength; }
+
+    public String getFileSize() {
+        return fileLength < 0 ? null : String.format(Locale.US, "%.2f MiB", fileLength / (1024.0 * 1024.0));
+    }
+
+    public int getTrackLength() { return trackLength; }
+    public void setTrackLength(int trackLength) { this.trackLength = trackLength; }
+
+    public String getDuration() {
+        return trackLength < 0 ? null : String.format("%d min %d s", trackLength / 60, trackLength % 60);
+    }
+
+    public String getBitrate() { return bitrate; }
+    public void setBitrate(String bitrate) { this.bitrate = bitrate != null ? bitrate.intern() : null; }
+
+    public String getMimeType() { return mimeType; }
+    public void setMimeType(String mimeType) { this.mimeType = mimeType != null ? mimeType.intern() : null; }
+
+    public ArtworkRef getArtwork() { return artwork; }
+    public void setArtwork(ArtworkRef artwork) {
+        if (this.artwork != artwork) {
+            artworkDirty = true;
+        }
+        this.artwork = artwork;
+    }
+
+
+    public String getComposer() { return get(TagField.COMPOSER); }
+    public void setComposer(String composer) { set(TagField.COMPOSER, composer); }
+
+    public String getLyricist() { return get(TagField.LYRICIST); }
+    public void setLyricist(String lyricist) { set(TagField.LYRICIST, lyricist); }
+
+    public String getPublisher() { return get(TagField.PUBLISHER); }
+    public void setPublisher(String publisher) { set(TagField.PUBLISHER, publisher); }
+
+    public String getCopyright() { return get(TagField.COPYRIGHT); }
+    public void setCopyright(String copyright) { set(TagField.COPYRIGHT, copyright); }
+
+    public String getBpm() { return get(TagField.BPM); }
+    public void setBpm(String bpm) { set(TagField.BPM, bpm); }
+
+    public String getIsrc() { return get(TagField.ISRC); }
+    public void setIsrc(String isrc) { set(TagField.ISRC, isrc); }
+}
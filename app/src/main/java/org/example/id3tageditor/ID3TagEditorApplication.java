@@ -0,0 +1,90 @@
+package org.example.id3tageditor;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+public class ID3TagEditorApplication extends Application {
+    private ID3TagEditorController controller;
+
+    @Override
+    public void start(Stage stage) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(ID3TagEditorApplication.class.getResource("/id3-tag-editor-view.fxml"));
+        Scene scene = new Scene(fxmlLoader.load(), 1200, 800); // Start with a good default size
+        scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/modern-style.css")).toExternalForm());
+
+
+        controller = fxmlLoader.getController();
+        controller.setPrimaryStage(stage);
+
+        stage.getIcons().add(new Image(Objects.requireNonNull(ID3TagEditorApplication.class.getResourceAsStream("/icon.png"))));
+
+        stage.setTitle("TuneLabel - ID3 Tag Editor");
+        stage.setScene(scene);
+
+        stage.setMinWidth(1000);
+        stage.setMinHeight(700);
+
+
+        stage.setResizable(true);
+        // Edits still waiting to be saved in the background are written before the window goes.
+        stage.setOnCloseRequest(event -> {
+            if (!controller.closeRequested(stage::close)) {
+                event.consume();
+            }
+        });
+
+        stage.show();
+
+        // Whatever the first frame does not need waits until it is on screen.
+        StartupTrace.afterNextPulse(scene, () -> {
+            StartupTrace.mark(StartupTrace.FIRST_FRAME);
+            Thread warmUp = Thread.ofPlatform().name("warm-up").daemon().start(ID3TagEditorApplication::warmUp);
+            Runnable onLoaded = EditorSettings.trainingRun() ? () -> exitAfter(warmUp) : () -> { };
+            List<File> files = getParameters().getUnnamed().stream().map(File::new).toList();
+            if (files.isEmpty()) {
+                onLoaded.run();
+            } else {
+                controller.open(files, onLoaded);
+            }
+        });
+    }
+
+    /**
+     * Does the start-up work that no window needs, off the FX thread.
+     */
+    private static void warmUp() {
+        TagMetrics.registerMBean();
+        ID3TagService.preload();
+    }
+
+    private static void exitAfter(Thread warmUp) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                warmUp.join();
+            } catch (InterruptedException e) {
+                // Quit anyway.
+            }
+            Platform.exit();
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,1330 @@
+package org.example.id3tageditor;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCombination;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class ID3TagEditorController {
+
+
+    @FXML private Button saveButton, saveAsButton, openFilesButton, openFolderButton, cancelButton, autoNumberButton, shrinkArtworkButton, undoButton, redoButton, duplicatesButton, exportButton, importButton;
+    @FXML private ProgressBar progressBar;
+    @FXML private CheckBox watchCheckBox, statsCheckBox, autoSaveCheckBox;
+    @FXML private ImageView artworkImageView;
+    @FXML private TextField titleField, artistField, albumField, yearField, genreField, trackField, trackTotalField, diskField, diskTotalField, commentField;
+    @FXML private TextArea lyricsArea;
+    @FXML private TextField searchField;
+    @FXML private Label statusLabel, statsLabel, sizeLabel, durationLabel, bitrateLabel, mimeTypeLabel, encoderLabel;
+
+
+    @FXML private TextField composerField, lyricistField, publisherField, copyrightField, bpmField, isrcField;
+
+
+
+    @FXML private TableView<ID3Tag> filesTableView;
+    @FXML private TableColumn<ID3Tag, String> fileNameColumn, titleColumn, artistColumn, albumColumn, trackColumn, yearColumn, genreColumn;
+
+
+    private final TagLibrary library = new TagLibrary();
+    // Created on first use rather than with the window; see tagService().
+    private ID3TagService tagService;
+    private final ArtworkStore artworkStore = new ArtworkStore();
+    private ArtworkLoader artworkLoader;
+    private Stage primaryStage;
+    private final Map<TagField, TextInputControl> fieldControls = new EnumMap<>(TagField.class);
+    private SelectionAggregate selection;
+    private SearchIndex searchIndex;
+    private FilteredList<ID3Tag> filteredTags;
+    private boolean searchRerunPending;
+    private final EditHistory history = new EditHistory(EditorSettings.undoMemory());
+    private boolean artworkChanged = false;
+    // The cover chosen in the detail pane, kept as the original file bytes; null removes artwork.
+    private ArtworkRef pendingArtwork;
+    private ParallelFileTask<?> currentTask;
+    private LibraryWatcher watcher;
+    private WriteBehindQueue writeQueue;
+    // A queue switched off that is still writing what was left in it.
+    private WriteBehindQueue closingQueue;
+    private Runnable closeAfterTask;
+    private Timeline statsTimeline;
+    private TagMetrics.Snapshot lastStats;
+    private Image defaultArtwork;
+
+
+    public void setPrimaryStage(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+    }
+
+    public void shutdown() {
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+        // Writes whatever edits are still waiting for their delay. Closing the window already
+        // did this with progress shown; this covers exits that did not go through the window.
+        if (writeQueue != null) {
+            stopWriteQueue();
+        }
+        if (closingQueue != null) {
+            closingQueue.close().join();
+        }
+        if (statsTimeline != null) {
+            statsTimeline.stop();
+        }
+        if (tagService != null) {
+            tagService.saveCache();
+        }
+    }
+
+    /**
+     * Called when the window is asked to close. Returns whether it can close now. Otherwise it
+     * stays open, with its controls disabled, while a running task is cancelled and the edits
+     * still queued for background saving are written, their progress in the status bar, and
+     * {@code close} runs once that is done.
+     */
+    public boolean closeRequested(Runnable close) {
+        if (currentTask != null) {
+            closeAfterTask = () -> {
+                if (closeRequested(close)) {
+                    close.run();
+                }
+            };
+            currentTask.cancel();
+            return false;
+        }
+        if (writeQueue == null && closingQueue == null) {
+            return true;
+        }
+        if (writeQueue != null) {
+            stopWriteQueue();
+        }
+        primaryStage.getScene().getRoot().setDisable(true);
+        statusLabel.setText("Saving " + closingQueue.size() + " queued file(s) before closing...");
+        closingQueue.close().thenRun(() -> Platform.runLater(close));
+        return false;
+    }
+
+    /**
+     * Opens the files given on the command line: a single folder is scanned as by Open Folder,
+     * anything else is loaded as by Open Files. {@code onLoaded} runs when loading has ended.
+     */
+    public void open(List<File> files, Runnable onLoaded) {
+        if (StartupTrace.enabled()) {
+            ObservableList<ID3Tag> tags = library.getTags();
+            tags.addListener(new ListChangeListener<>() {
+                @Override
+                public void onChanged(Change<? extends ID3Tag> change) {
+                    if (!tags.isEmpty()) {
+                        tags.removeListener(this);
+                        StartupTrace.afterNextPulse(filesTableView.getScene(), () -> StartupTrace.mark(StartupTrace.FIRST_ROW));
+                    }
+                }
+            });
+        }
+        if (files.size() == 1 && files.get(0).isDirectory()) {
+            scanFolder(files.get(0).toPath());
+        } else {
+            loadFiles(files.stream().filter(File::isFile).toList());
+        }
+        ParallelFileTask<?> task = currentTask;
+        if (task == null) {
+            onLoaded.run();
+            return;
+        }
+        task.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (!running) {
+                onLoaded.run();
+            }
+        });
+    }
+
+    /**
+     * The tag service, created when it is first needed so that opening the window does not wait
+     * for it. Call on the FX thread.
+     */
+    private ID3TagService tagService() {
+        if (tagService == null) {
+            tagService = new ID3TagService(new TagCache(TagCache.defaultLocation()));
+        }
+        return tagService;
+    }
+
+    private ArtworkLoader artworkLoader() {
+        if (artworkLoader == null) {
+            artworkLoader = new ArtworkLoader(tagService());
+        }
+        return artworkLoader;
+    }
+
+    private Image defaultArtwork() {
+        if (defaultArtwork == null) {
+            defaultArtwork = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/no-cover-art.png")));
+        }
+        return defaultArtwork;
+    }
+
+    @FXML
+    private void initialize() {
+        setupTableView();
+        setupTagFieldListeners();
+        setupHistory();
+        if (EditorSettings.writeBehind()) {
+            autoSaveCheckBox.setSelected(true);
+            handleAutoSaveToggle();
+        }
+        saveAsButton.disableProperty().bind(
+                Bindings.size(filesTableView.getSelectionModel().getSelectedItems()).isNotEqualTo(1)
+        );
+    }
+
+    private void setupTableView() {
+        // The index has to see new tags before the filtered list asks it about them.
+        searchIndex = new SearchIndex(library.getTags());
+        filteredTags = new FilteredList<>(library.getTags());
+        searchField.textProperty().addListener((obs, oldQuery, newQuery) -> filteredTags.setPredicate(searchIndex.search(newQuery)));
+        SortedList<ID3Tag> sortedTags = new SortedList<>(filteredTags);
+        sortedTags.comparatorProperty().bind(filesTableView.comparatorProperty());
+        filesTableView.setItems(sortedTags);
+        filesTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        fileNameColumn.setCellValueFactory(new PropertyValueFactory<>("fileName"));
+        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
+        artistColumn.setCellValueFactory(new PropertyValueFactory<>("artist"));
+        albumColumn.setCellValueFactory(new PropertyValueFactory<>("album"));
+        trackColumn.setCellValueFactory(new PropertyValueFactory<>("track"));
+        yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
+        genreColumn.setCellValueFactory(new PropertyValueFactory<>("genre"));
+
+        filesTableView.setRowFactory(tv -> {
+            TableRow<ID3Tag> row = new TableRow<>();
+            ContextMenu contextMenu = new ContextMenu();
+            MenuItem removeItem = new MenuItem("Remove Selected");
+            removeItem.setOnAction(event -> {
+                if (currentTask != null) {
+                    return;
+                }
+                List<ID3Tag> selectedItems = List.copyOf(filesTableView.getSelectionModel().getSelectedItems());
+                library.removeAll(selectedItems);
+                statusLabel.setText(selectedItems.size() + " file(s) removed.");
+                filesTableView.getSelectionModel().clearSelection();
+            });
+
+            MenuItem renameItem = new MenuItem("Rename File");
+            renameItem.setOnAction(event -> handleRenameFile());
+            renameItem.disableProperty().bind(
+                    Bindings.size(filesTableView.getSelectionModel().getSelectedItems()).isNotEqualTo(1)
+            );
+
+            MenuItem batchRenameItem = new MenuItem("Rename from Tags...");
+            batchRenameItem.setOnAction(event -> handleBatchRename());
+            MenuItem tagsFromNamesItem = new MenuItem("Tags from File Names...");
+            tagsFromNamesItem.setOnAction(event -> handleTagsFromFileNames());
+
+            contextMenu.getItems().addAll(removeItem, renameItem, batchRenameItem, tagsFromNamesItem);
+            row.contextMenuProperty().bind(
+                    Bindings.when(row.emptyProperty())
+                            .then((ContextMenu) null)
+                            .otherwise(contextMenu)
+            );
+            return row;
+        });
+
+        // The aggregate is registered first so it is current when the detail pane is refreshed.
+        ObservableList<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+        selection = new SelectionAggregate(selectedItems);
+        selectedItems.addListener((ListChangeListener<ID3Tag>) change -> populateFieldsFromSelection());
+    }
+
+    private void setupTagFieldListeners() {
+        fieldControls.put(TagField.TITLE, titleField);
+        fieldControls.put(TagField.ARTIST, artistField);
+        fieldControls.put(TagField.ALBUM, albumField);
+        fieldControls.put(TagField.YEAR, yearField);
+        fieldControls.put(TagField.GENRE, genreField);
+        fieldControls.put(TagField.COMMENT, commentField);
+        fieldControls.put(TagField.TRACK, trackField);
+        fieldControls.put(TagField.TRACK_TOTAL, trackTotalField);
+        fieldControls.put(TagField.DISK, diskField);
+        fieldControls.put(TagField.DISK_TOTAL, diskTotalField);
+        fieldControls.put(TagField.LYRICS, lyricsArea);
+        fieldControls.put(TagField.COMPOSER, composerField);
+        fieldControls.put(TagField.LYRICIST, lyricistField);
+        fieldControls.put(TagField.PUBLISHER, publisherField);
+        fieldControls.put(TagField.COPYRIGHT, copyrightField);
+        fieldControls.put(TagField.BPM, bpmField);
+        fieldControls.put(TagField.ISRC, isrcField);
+
+        fieldControls.values().forEach(field -> field.textProperty().addListener((obs, ov, nv) -> markAsChanged()));
+    }
+
+    @FXML
+    private void handleOpenFilesButton() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Audio Files");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Audio Files", FolderScanner.extensionPatterns()),
+                new FileChooser.ExtensionFilter("MP3 Files", "*.mp3"));
+        List<File> selectedFiles = fileChooser.showOpenMultipleDialog(primaryStage);
+        if (selectedFiles != null) {
+            loadFiles(selectedFiles);
+        }
+    }
+
+    @FXML
+    private void handleOpenFolderButton() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Open Folder Containing Audio Files");
+        File selectedDirectory = directoryChooser.showDialog(primaryStage);
+        if (selectedDirectory != null) {
+            scanFolder(selectedDirectory.toPath());
+        }
+    }
+
+    /**
+     * Loads every supported file below {@code root}, reading tags while the scan is still
+     * running instead of listing the whole tree first.
+     */
+    private void scanFolder(Path root) {
+        if (currentTask != null) {
+            return;
+        }
+        FolderScanner scanner = new FolderScanner(EditorSettings.scanDepth(), Runtime.getRuntime().availableProcessors());
+        ParallelFileTask.Source<File> files = sink -> scanner.scan(root, path -> {
+            File file = path.toFile();
+            if (!library.contains(file)) {
+                sink.accept(file);
+            }
+        });
+        startLoading(new TagLoadTask(tagService(), files, TagLoadTask.defaultParallelism(), library::addAll), scanner::getErrors);
+    }
+
+    private void loadFiles(List<File> files) {
+        if (currentTask != null) {
+            return;
+        }
+        List<File> newFiles = files.stream().filter(file -> !library.contains(file)).toList();
+        if (newFiles.isEmpty()) {
+            statusLabel.setText(library.size() + " files loaded.");
+            return;
+        }
+
+        startLoading(new TagLoadTask(tagService(), newFiles, TagLoadTask.defaultParallelism(), library::addAll), List::of);
+    }
+
+    private void startLoading(TagLoadTask task, Supplier<List<FileError>> scanErrors) {
+        runTask(task, "tag-loader", (fileErrors, cancelled) -> {
+            List<FileError> errors = new ArrayList<>(scanErrors.get());
+            errors.addAll(fileErrors);
+            String status = library.size() + " files loaded.";
+            if (cancelled) {
+                status = "Loading cancelled. " + status;
+            }
+            if (!errors.isEmpty()) {
+                status += " " + errors.size() + " file(s) or folder(s) could not be read.";
+            }
+            statusLabel.setText(status);
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Loading Files", errors.size() + " file(s) or folder(s) could not be read.", errors);
+            }
+        });
+    }
+
+    private void runTask(ParallelFileTask<?> task, String threadName, BiConsumer<List<FileError>, Boolean> onFinished) {
+        currentTask = task;
+        setBusy(true);
+        progressBar.progressProperty().bind(task.progressProperty());
+        task.messageProperty().addListener((obs, oldMessage, newMessage) -> statusLabel.setText(newMessage));
+
+        // Tasks read, write and move files, so background saving waits until they are done. A
+        // queue that was switched off is waited for until it has written everything.
+        WriteBehindQueue queue = writeQueue != null ? writeQueue : closingQueue;
+        if (queue != null) {
+            queue.pause();
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                if (queue != null) {
+                    queue.awaitIdle();
+                }
+            } catch (InterruptedException e) {
+                task.cancel();
+            }
+            task.run();
+            // A cancelled task changes state at once, while the items in flight are still
+            // working on their files; the task ends only here, once call() has returned.
+            // Success and failure were posted from run(), so their state is already set.
+            Platform.runLater(() -> finishTask(() -> {
+                switch (task.getState()) {
+                    case SUCCEEDED -> onFinished.accept(task.getValue(), false);
+                    case CANCELLED -> onFinished.accept(List.of(), true);
+                    default -> {
+                        onFinished.accept(List.of(), false);
+                        Throwable error = task.getException();
+                        showError("Background Task Failed", "The operation stopped unexpectedly: "
+                                + (error != null ? error.getMessage() : "unknown error"));
+                    }
+                }
+            }));
+        }, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleWatchToggle() {
+        if (!watchCheckBox.isSelected()) {
+            if (watcher != null) {
+                watcher.close();
+                watcher = null;
+            }
+            return;
+        }
+        try {
+            watcher = new LibraryWatcher(library, tagService(), this::applyWatchedChanges);
+            watcher.setPaused(currentTask != null);
+            watcher.start();
+        } catch (IOException e) {
+            watchCheckBox.setSelected(false);
+            showError("Watch Error", "Could not watch the loaded folders: " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleAutoSaveToggle() {
+        if (!autoSaveCheckBox.isSelected()) {
+            if (writeQueue != null) {
+                stopWriteQueue();
+            }
+            return;
+        }
+        writeQueue = new WriteBehindQueue(tagService(), EditorSettings.saveParallelism(), EditorSettings.writeBehindDelay(),
+                this::backgroundWriteFinished);
+        writeQueue.start();
+        // Edits made before auto-save was switched on are saved too.
+        writeQueue.enqueue(library.getTags());
+    }
+
+    /**
+     * Switches background saving off. The writer goes on writing what is still queued, reporting
+     * each batch as before; auto-save can be switched on again once it is done.
+     */
+    private void stopWriteQueue() {
+        WriteBehindQueue queue = writeQueue;
+        writeQueue = null;
+        closingQueue = queue;
+        autoSaveCheckBox.setDisable(true);
+        queue.close().thenRun(() -> Platform.runLater(() -> {
+            if (closingQueue == queue) {
+                closingQueue = null;
+                autoSaveCheckBox.setDisable(currentTask != null);
+            }
+        }));
+    }
+
+    private void backgroundWriteFinished(WriteBehindQueue.Result result) {
+        String status = "Auto-saved " + result.saved() + " file(s).";
+        if (result.pending() > 0) {
+            status += " " + result.pending() + " waiting.";
+        }
+        statusLabel.setText(status);
+        if (!result.errors().isEmpty()) {
+            showErrorSummary("Error Saving Files", result.errors().size()
+                    + " file(s) could not be saved in the background; their edits are kept.", result.errors());
+        }
+    }
+
+    /**
+     * Hands edited tags to the background writer when auto-save is on.
+     */
+    private void queueWrites(Collection<ID3Tag> tags) {
+        if (writeQueue != null) {
+            writeQueue.enqueue(tags);
+        }
+    }
+
+    @FXML
+    private void handleStatsToggle() {
+        boolean show = statsCheckBox.isSelected();
+        statsLabel.setVisible(show);
+        statsLabel.setManaged(show);
+        if (!show) {
+            statsTimeline.stop();
+            return;
+        }
+        if (statsTimeline == null) {
+            statsTimeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> updateStats()));
+            statsTimeline.setCycleCount(Timeline.INDEFINITE);
+            Tooltip details = new Tooltip();
+            details.setStyle("-fx-font-family: monospace;");
+            statsLabel.setTooltip(details);
+        }
+        lastStats = null;
+        updateStats();
+        statsTimeline.play();
+    }
+
+    private void updateStats() {
+        TagMetrics.Snapshot stats = TagMetrics.global().snapshot();
+        Map<TagMetrics.Operation, TagMetrics.OperationStats> operations = stats.operations();
+        // Files per second over the last tick while a task runs, otherwise that of the last run.
+        double filesPerSecond = currentTask != null && lastStats != null
+                ? stats.filesRead() + stats.filesSaved() - lastStats.filesRead() - lastStats.filesSaved()
+                : Math.max(stats.lastLoadFilesPerSecond(), stats.lastSaveFilesPerSecond());
+        lastStats = stats;
+
+        statsLabel.setText(String.format(Locale.US,
+                "read p95 %.1f ms | save p95 %.1f ms | %.0f files/s | cache %.0f%% | %s read, %s written",
+                operations.get(TagMetrics.Operation.READ_LISTING).p95Millis(),
+                operations.get(TagMetrics.Operation.SAVE_TAGS).p95Millis(),
+                filesPerSecond, stats.tagCacheHitRate() * 100,
+                formatBytes(stats.bytesRead()), formatBytes(stats.bytesWritten())));
+
+        StringBuilder details = new StringBuilder(String.format(Locale.US,
+                "%-18s %8s %9s %9s %9s %9s%n", "", "count", "mean ms", "p50 ms", "p95 ms", "max ms"));
+        operations.forEach((operation, op) -> details.append(String.format(Locale.US,
+                "%-18s %8d %9.2f %9.2f %9.2f %9.2f%n", operation, op.count(), op.meanMillis(),
+                op.p50Millis(), op.p95Millis(), op.maxMillis())));
+        details.append(String.format(Locale.US,
+                "%nLast load %.0f files/s, last save %.0f files/s%nTag cache hits %.0f%%, artwork cache hits %.0f%%",
+                stats.lastLoadFilesPerSecond(), stats.lastSaveFilesPerSecond(),
+                stats.tagCacheHitRate() * 100, stats.artworkCacheHitRate() * 100));
+        statsLabel.getTooltip().setText(details.toString());
+    }
+
+    private void applyWatchedChanges(LibraryWatcher.Changes changes) {
+        if (watcher == null) {
+            return;
+        }
+        List<ID3Tag> added = library.addAll(changes.added());
+        library.removeAll(changes.removed());
+        List<ID3Tag> reloaded = new ArrayList<>();
+        int keptEdits = 0;
+        for (ID3Tag fresh : changes.modified()) {
+            ID3Tag tag = library.get(new File(fresh.getFilePath()));
+            if (tag == null) {
+                continue;
+            }
+            if (tag.isDirty()) {
+                keptEdits++;
+            } else {
+                tag.reload(fresh);
+                reloaded.add(tag);
+            }
+        }
+
+        if (!reloaded.isEmpty()) {
+            selection.update(reloaded);
+            updateSearch(reloaded);
+            filesTableView.refresh();
+            List<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+            if (reloaded.stream().anyMatch(selectedItems::contains)) {
+                populateFieldsFromSelection();
+            }
+        }
+        String status = "Changes on disk: " + added.size() + " added, " + reloaded.size() + " updated, "
+                + changes.removed().size() + " removed.";
+        if (keptEdits > 0) {
+            status += " " + keptEdits + " changed file(s) with unsaved edits were not reloaded.";
+        }
+        statusLabel.setText(status);
+    }
+
+    @FXML
+    private void handleCancelButton() {
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+    }
+
+    /**
+     * Ends the current task and reports its outcome. Background saving resumes only after the
+     * report, by which time tags of moved files point at their new paths.
+     */
+    private void finishTask(Runnable report) {
+        currentTask = null;
+        setBusy(false);
+        progressBar.progressProperty().unbind();
+        try {
+            report.run();
+        } finally {
+            if (writeQueue != null) {
+                writeQueue.resume();
+            }
+            if (closeAfterTask != null) {
+                Runnable close = closeAfterTask;
+                closeAfterTask = null;
+                close.run();
+            }
+        }
+    }
+
+    private void setBusy(boolean busy) {
+        progressBar.setVisible(busy);
+        progressBar.setManaged(busy);
+        cancelButton.setVisible(busy);
+        cancelButton.setManaged(busy);
+        openFilesButton.setDisable(busy);
+        openFolderButton.setDisable(busy);
+        autoNumberButton.setDisable(busy);
+        shrinkArtworkButton.setDisable(busy);
+        autoSaveCheckBox.setDisable(busy || closingQueue != null);
+        duplicatesButton.setDisable(busy);
+        exportButton.setDisable(busy);
+        importButton.setDisable(busy);
+        updateHistoryButtons();
+        saveButton.setDisable(busy || library.isEmpty());
+        if (watcher != null) {
+            watcher.setPaused(busy);
+        }
+    }
+
+    @FXML
+    private void handleSaveButton() {
+        ObservableList<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+        if (selectedItems.isEmpty()) {
+            showError("Nothing to Save", "Please select one or more files to save.");
+            return;
+        }
+        updateTagsFromFields(selectedItems);
+        List<ID3Tag> changedTags = selectedItems.stream().filter(ID3Tag::isDirty).toList();
+        int unchangedCount = selectedItems.size() - changedTags.size();
+        if (changedTags.isEmpty()) {
+            statusLabel.setText("No changes to save (" + unchangedCount + " file(s) unchanged).");
+            return;
+        }
+        saveChanged(changedTags, unchangedCount + " unchanged");
+    }
+
+    /**
+     * Saves changed tags in the background, or hands them to the write-behind queue when
+     * auto-save is on.
+     */
+    private void saveChanged(List<ID3Tag> changedTags, String unchangedNote) {
+        if (writeQueue != null) {
+            writeQueue.flush(changedTags);
+            statusLabel.setText(changedTags.size() + " changed file(s) queued for saving.");
+            return;
+        }
+
+        TagSaveTask task = new TagSaveTask(tagService(), changedTags, EditorSettings.saveParallelism());
+        runTask(task, "tag-saver", (errors, cancelled) -> {
+            task.applySaved();
+            String status = task.getSavedCount() + " of " + changedTags.size() + " changed files saved ("
+                    + unchangedNote + ", " + formatBytes(task.getBytesWritten()) + " written).";
+            if (cancelled) {
+                status = "Saving cancelled. " + status;
+            }
+            statusLabel.setText(status);
+            filesTableView.refresh();
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Saving Files", errors.size() + " file(s) could not be saved.", errors);
+            }
+        });
+    }
+
+    @FXML
+    private void handleExportButton() {
+        if (currentTask != null || library.isEmpty()) {
+            return;
+        }
+        FileChooser fileChooser = tableChooser("Export Tags");
+        fileChooser.setInitialFileName("tags.csv");
+        File file = fileChooser.showSaveDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        // Exports what is shown, including edits that have not been saved yet.
+        updateTagsFromFields(filesTableView.getSelectionModel().getSelectedItems());
+        List<ID3Tag> tags = List.copyOf(library.getTags());
+        TagExportTask task;
+        try {
+            task = new TagExportTask(tags, file.toPath());
+        } catch (IOException e) {
+            showError("Export Error", "Could not create " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        runTask(task, "tag-exporter", (errors, cancelled) -> {
+            String status = task.getRowCount() + " of " + tags.size() + " file(s) exported to " + file.getName() + ".";
+            if (cancelled) {
+                status = "Export cancelled. " + status;
+            } else if (task.getException() != null) {
+                status = "Export failed. " + status;
+            }
+            if (!errors.isEmpty()) {
+                status += " " + errors.size() + " file(s) could not be exported.";
+            }
+            statusLabel.setText(status);
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Exporting Tags", errors.size() + " file(s) could not be exported.", errors);
+            }
+        });
+    }
+
+    @FXML
+    private void handleImportButton() {
+        if (currentTask != null || library.isEmpty()) {
+            return;
+        }
+        File file = tableChooser("Import Tags").showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        updateTagsFromFields(filesTableView.getSelectionModel().getSelectedItems());
+        EditHistory.Batch batch = history.begin("import from " + file.getName());
+        List<ID3Tag> changedTags = new ArrayList<>();
+        TagImportTask task = new TagImportTask(file.toPath(), library::get, changes -> {
+            List<ID3Tag> tags = new ArrayList<>(changes.size());
+            for (TagImportTask.Change change : changes) {
+                change.values().forEach((field, value) -> batch.set(change.tag(), field, value));
+                tags.add(change.tag());
+            }
+            selection.update(tags);
+            updateSearch(tags);
+            changedTags.addAll(tags);
+        });
+        runTask(task, "tag-importer", (errors, cancelled) -> {
+            // Rows applied before a cancel or an error stay applied, as one undoable step. The
+            // task posts its last batch before it returns, and runTask reports only after that,
+            // so the step holds every flushed row.
+            record(batch);
+            filesTableView.refresh();
+            populateFieldsFromSelection();
+            String note = task.getUnchangedCount() + " unchanged, " + task.getNotLoadedCount() + " not loaded";
+            if (cancelled || changedTags.isEmpty() || task.getException() != null) {
+                statusLabel.setText((cancelled ? "Import cancelled. " : "") + changedTags.size()
+                        + " file(s) changed by the import (" + note + ").");
+                return;
+            }
+            saveChanged(changedTags.stream().filter(ID3Tag::isDirty).toList(), note);
+        });
+    }
+
+    private static FileChooser tableChooser(String title) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Files", "*.json"));
+        return fileChooser;
+    }
+
+    @FXML
+    private void handleSaveAsButton() {
+        if (currentTask != null) {
+            return;
+        }
+        ID3Tag selectedTag = filesTableView.getSelectionModel().getSelectedItem();
+        if (selectedTag == null) {
+            showError("Nothing to Save", "Please select a file to save as a copy.");
+            return;
+        }
+        updateTagsFromFields(List.of(selectedTag));
+        // A copy keeps the format of the original, which is told by its extension.
+        String fileName = selectedTag.getFileName();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        String format = extension.toUpperCase(Locale.ROOT);
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save " + format + " File As...");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format + " Files", "*." + extension, "*." + format));
+        fileChooser.setInitialFileName(fileName);
+        File newFile = fileChooser.showSaveDialog(primaryStage);
+        if (newFile != null && !newFile.getName().toLowerCase(Locale.ROOT).endsWith("." + extension)) {
+            newFile = new File(newFile.getPath() + "." + extension);
+        }
+        if (newFile == null) {
+            return;
+        }
+        // A background save of the original is written first, so the copy is not read from a
+        // file that is being rewritten; runTask waits for writes flushed before it starts.
+        if (writeQueue != null) {
+            writeQueue.flush(List.of(selectedTag));
+        }
+        File target = newFile;
+        TagSaveTask task = TagSaveTask.copy(tagService(), selectedTag, target);
+        runTask(task, "tag-saver", (errors, cancelled) -> {
+            if (task.getSavedCount() > 0) {
+                statusLabel.setText("File saved successfully to: " + target.getName() + " (" + formatBytes(task.getBytesWritten()) + " written)");
+            } else if (cancelled) {
+                statusLabel.setText("Save As cancelled.");
+            }
+            if (!errors.isEmpty()) {
+                showError("Error Saving File", "Could not save a copy of the file: " + errors.get(0).message());
+            }
+        });
+    }
+
+    private void handleRenameFile() {
+        ID3Tag selectedTag = filesTableView.getSelectionModel().getSelectedItem();
+        if (currentTask != null || selectedTag == null) return;
+        String currentFileName = selectedTag.getFileName();
+        String currentNameWithoutExt = currentFileName.replaceFirst("[.][^.]+$", "");
+        TextInputDialog dialog = new TextInputDialog(currentNameWithoutExt);
+        dialog.setTitle("Rename File");
+        dialog.setHeaderText("Enter a new name for the file '" + currentFileName + "'.");
+        dialog.setContentText("New name (without extension):");
+        Optional<String> result = dialog.showAndWait();
+        result.ifPresent(newName -> {
+            if (newName.isEmpty() || newName.equals(currentNameWithoutExt)) return;
+            Path sourcePath = Paths.get(selectedTag.getFilePath());
+            int dot = sourcePath.toString().lastIndexOf(".");
+            String extension = dot >= 0 ? sourcePath.toString().substring(dot) : "";
+            Path targetPath;
+            try {
+                targetPath = sourcePath.resolveSibling(newName + extension);
+            } catch (InvalidPathException e) {
+                showError("Rename Error", "'" + newName + "' is not a valid file name.");
+                return;
+            }
+            if (Files.exists(targetPath)) {
+                showError("Rename Error", "A file with that name already exists.");
+                return;
+            }
+            // Run as a task, so that it waits off the FX thread for any background save of the file.
+            RenameTask task = new RenameTask(tagService(), RenamePlan.single(selectedTag, targetPath), 1);
+            runTask(task, "file-mover", (errors, cancelled) -> {
+                if (task.getCompleted().isEmpty()) {
+                    if (!cancelled) {
+                        showError("Rename Error", "Could not rename the file. It may be in use.");
+                    }
+                    return;
+                }
+                fileMoved(selectedTag, targetPath);
+                statusLabel.setText("File renamed to " + targetPath.getFileName());
+                filesTableView.refresh();
+            });
+        });
+    }
+
+    private void populateFieldsFromSelection() {
+        ObservableList<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+        if (selectedItems.isEmpty()) {
+            clearAllFields();
+            return;
+        }
+
+        fieldControls.forEach((field, control) -> control.setText(selection.commonValue(field)));
+
+        if (selectedItems.size() == 1) {
+            ID3Tag tag = selectedItems.get(0);
+            encoderLabel.setText(tag.getEncoder());
+            sizeLabel.setText(tag.getFileSize());
+            showAudioDetails(tag);
+            showArtwork(tag);
+        } else {
+            encoderLabel.setText("<various>");
+            sizeLabel.setText("-");
+            durationLabel.setText("-");
+            bitrateLabel.setText("-");
+            mimeTypeLabel.setText("-");
+            artworkImageView.setImage(defaultArtwork());
+        }
+        artworkChanged = false;
+        pendingArtwork = null;
+    }
+
+    private void showAudioDetails(ID3Tag tag) {
+        if (tag.getTrackLength() >= 0) {
+            durationLabel.setText(tag.getDuration());
+            bitrateLabel.setText(tag.getBitrate());
+            mimeTypeLabel.setText(tag.getMimeType());
+            return;
+        }
+        durationLabel.setText("...");
+        bitrateLabel.setText("...");
+        mimeTypeLabel.setText("...");
+        ID3TagService service = tagService();
+        File file = new File(tag.getFilePath());
+        Thread.ofVirtual().name("audio-header").start(() -> {
+            ID3TagService.AudioDetails details;
+            try {
+                details = service.readAudioHeader(file);
+            } catch (Exception e) {
+                System.err.println("Could not read audio header of " + file + ": " + e.getMessage());
+                return;
+            }
+            // The tag belongs to the FX thread.
+            Platform.runLater(() -> {
+                if (!file.getPath().equals(tag.getFilePath())) {
+                    return;
+                }
+                details.applyTo(tag);
+                List<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+                if (selectedItems.size() == 1 && selectedItems.get(0) == tag) {
+                    durationLabel.setText(tag.getDuration());
+                    bitrateLabel.setText(tag.getBitrate());
+                    mimeTypeLabel.setText(tag.getMimeType());
+                }
+            });
+        });
+    }
+
+    private void showArtwork(ID3Tag tag) {
+        ArtworkRef artwork = tag.getArtwork();
+        if (artwork == null) {
+            artworkImageView.setImage(defaultArtwork());
+            return;
+        }
+        int width = (int) artworkImageView.getFitWidth();
+        int height = (int) artworkImageView.getFitHeight();
+        Image cached = artworkLoader().getCached(artwork, width, height);
+        if (cached != null) {
+            artworkImageView.setImage(cached);
+            return;
+        }
+        artworkImageView.setImage(defaultArtwork());
+        artworkLoader().load(tag, width, height, image -> {
+            List<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+            if (!artworkChanged && selectedItems.size() == 1 && selectedItems.get(0) == tag && tag.getArtwork() == artwork) {
+                artworkImageView.setImage(image);
+            }
+        });
+    }
+
+    /**
+     * Applies the detail pane to the selected tags. Common values are taken from the selection
+     * aggregate once, before any tag is modified.
+     */
+    private void updateTagsFromFields(List<ID3Tag> tagsToUpdate) {
+        Map<TagField, String> texts = new EnumMap<>(TagField.class);
+        fieldControls.forEach((field, control) -> texts.put(field, control.getText()));
+        Map<TagField, String> edits = selection.editsFrom(texts);
+        EditHistory.Batch batch = history.begin("edit of " + tagsToUpdate.size() + " file(s)");
+        for (ID3Tag tag : tagsToUpdate) {
+            for (Map.Entry<TagField, String> edit : edits.entrySet()) {
+                batch.set(tag, edit.getKey(), edit.getValue());
+            }
+            if (artworkChanged) {
+                batch.setArtwork(tag, pendingArtwork);
+            }
+        }
+        record(batch);
+        selection.update(tagsToUpdate);
+        updateSearch(tagsToUpdate);
+        queueWrites(tagsToUpdate);
+    }
+
+    private void setupHistory() {
+        updateHistoryButtons();
+        // Text fields handle these keys themselves while they have focus.
+        filesTableView.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Z"), this::handleUndo);
+                scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Shift+Z"), this::handleRedo);
+                scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Y"), this::handleRedo);
+            }
+        });
+    }
+
+    /**
+     * Adds the changes made through {@code batch} to the undo history as one step.
+     */
+    private void record(EditHistory.Batch batch) {
+        if (!batch.isEmpty() && !history.commit(batch)) {
+            System.err.println("Not enough undo memory to keep the " + batch.size() + "-file step; it cannot be undone.");
+        }
+        updateHistoryButtons();
+    }
+
+    private void updateHistoryButtons() {
+        boolean busy = currentTask != null;
+        undoButton.setDisable(busy || !history.canUndo());
+        redoButton.setDisable(busy || !history.canRedo());
+        undoButton.setTooltip(history.canUndo() ? new Tooltip("Undo " + history.getUndoDescription()) : null);
+        redoButton.setTooltip(history.canRedo() ? new Tooltip("Redo " + history.getRedoDescription()) : null);
+    }
+
+    @FXML
+    private void handleUndo() {
+        if (currentTask != null) {
+            return;
+        }
+        // Edits still in the detail pane are the most recent change, so they are undone first.
+        updateTagsFromFields(filesTableView.getSelectionModel().getSelectedItems());
+        if (history.canUndo()) {
+            String description = history.getUndoDescription();
+            historyApplied(history.undo());
+            statusLabel.setText("Undid " + description + ".");
+        }
+    }
+
+    @FXML
+    private void handleRedo() {
+        if (currentTask != null || !history.canRedo()) {
+            return;
+        }
+        String description = history.getRedoDescription();
+        historyApplied(history.redo());
+        statusLabel.setText("Redid " + description + ".");
+    }
+
+    private void historyApplied(List<ID3Tag> tags) {
+        selection.update(tags);
+        updateSearch(tags);
+        queueWrites(tags);
+        filesTableView.refresh();
+        populateFieldsFromSelection();
+        updateHistoryButtons();
+    }
+
+    private void handleBatchRename() {
+        List<ID3Tag> selectedItems = List.copyOf(filesTableView.getSelectionModel().getSelectedItems());
+        if (currentTask != null || selectedItems.isEmpty()) {
+            return;
+        }
+        updateTagsFromFields(selectedItems);
+        Optional<RenamePlan> plan = FilenamePatternDialog.showRename(primaryStage, selectedItems);
+        if (plan.isEmpty()) {
+            return;
+        }
+        int skipped = plan.get().getEntries().size() - plan.get().getMoves().size();
+        RenameTask task = new RenameTask(tagService(), plan.get(), EditorSettings.saveParallelism());
+        runTask(task, "file-mover", (errors, cancelled) -> {
+            // Moves that completed are applied even if the task was cancelled or failed. runTask
+            // reports only after the task has returned, so moves in flight at a cancel are included.
+            List<RenamePlan.Entry> moved = task.getCompleted();
+            for (RenamePlan.Entry entry : moved) {
+                fileMoved(entry.tag(), entry.target());
+            }
+            filesTableView.refresh();
+            String status = moved.size() + " file(s) renamed, " + skipped + " skipped.";
+            if (cancelled) {
+                status = "Renaming cancelled. " + status;
+            }
+            statusLabel.setText(status);
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Renaming Files", errors.size() + " file(s) could not be moved.", errors);
+            }
+        });
+    }
+
+    /**
+     * Points a loaded tag, and everything indexed by its path, at the place its file was moved to.
+     */
+    private void fileMoved(ID3Tag tag, Path target) {
+        Path source = Path.of(tag.getFilePath());
+        library.rename(tag, target);
+        updateSearch(List.of(tag));
+        // A queued background save is for the old path; queue it again for the new one.
+        queueWrites(List.of(tag));
+        if (watcher != null) {
+            watcher.moved(tag, source);
+        }
+    }
+
+    private void handleTagsFromFileNames() {
+        List<ID3Tag> selectedItems = List.copyOf(filesTableView.getSelectionModel().getSelectedItems());
+        if (currentTask != null || selectedItems.isEmpty()) {
+            return;
+        }
+        updateTagsFromFields(selectedItems);
+        Optional<Map<ID3Tag, Map<TagField, String>>> changes = FilenamePatternDialog.showTagging(primaryStage, selectedItems);
+        if (changes.isEmpty()) {
+            return;
+        }
+        EditHistory.Batch batch = history.begin("tags from file names of " + changes.get().size() + " file(s)");
+        changes.get().forEach((tag, values) -> values.forEach((field, value) -> batch.set(tag, field, value)));
+        record(batch);
+        List<ID3Tag> changed = List.copyOf(changes.get().keySet());
+        selection.update(changed);
+        updateSearch(changed);
+        queueWrites(changed);
+        filesTableView.refresh();
+        populateFieldsFromSelection();
+        statusLabel.setText("Tags of " + changed.size() + " file(s) filled in from file names. Click Save to apply.");
+    }
+
+    @FXML
+    private void handleAutoNumberTracks() {
+        ObservableList<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+        if (selectedItems.isEmpty()) {
+            showInfo("Auto-numbering", "Please select the files you wish to number.");
+            return;
+        }
+        int totalTracks = selectedItems.size();
+        EditHistory.Batch batch = history.begin("auto-numbering of " + totalTracks + " file(s)");
+        for (int i = 0; i < totalTracks; i++) {
+            ID3Tag tag = selectedItems.get(i);
+            batch.set(tag, TagField.TRACK, String.valueOf(i + 1));
+            batch.set(tag, TagField.TRACK_TOTAL, String.valueOf(totalTracks));
+        }
+        record(batch);
+        statusLabel.setText("Track numbers assigned. Click Save to apply.");
+        selection.update(selectedItems);
+        updateSearch(selectedItems);
+        queueWrites(selectedItems);
+        filesTableView.refresh();
+        populateFieldsFromSelection();
+    }
+
+    @FXML
+    private void handleFindDuplicates() {
+        if (currentTask != null) {
+            return;
+        }
+        // Only files whose audio can be hashed without their tags are compared.
+        List<ID3Tag> tags = library.getTags().stream()
+                .filter(tag -> AudioHasher.supports(new File(tag.getFilePath())))
+                .toList();
+        int skipped = library.size() - tags.size();
+        String skippedNote = skipped == 0 ? ""
+                : " " + skipped + " file(s) in formats other than MP3, FLAC and MP4 were not compared.";
+        if (tags.size() < 2) {
+            statusLabel.setText("Not enough MP3, FLAC or MP4 files to compare." + skippedNote);
+            return;
+        }
+        DuplicateScanTask task = new DuplicateScanTask(tagService(), tags, Runtime.getRuntime().availableProcessors());
+        runTask(task, "duplicate-finder", (errors, cancelled) -> {
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Hashing Files", errors.size() + " file(s) could not be read.", errors);
+            }
+            if (cancelled) {
+                statusLabel.setText("Duplicate search cancelled.");
+                return;
+            }
+            List<List<ID3Tag>> groups = task.getDuplicates();
+            if (groups.isEmpty()) {
+                statusLabel.setText("No duplicate recordings among " + task.getHashedCount() + " file(s)." + skippedNote);
+                return;
+            }
+            statusLabel.setText(groups.size() + " duplicate recording(s) found." + skippedNote);
+            DuplicatesDialog.show(primaryStage, groups, task.getHashedCount()).ifPresent(this::selectTags);
+        });
+    }
+
+    /**
+     * Re-indexes tags that were edited or renamed. A search's matches are worked out when it is
+     * run, so an active search is run again to show or hide the rows the edit affects. That waits
+     * until the current action is done, since it may still be going through the selection.
+     */
+    private void updateSearch(Collection<ID3Tag> tags) {
+        searchIndex.update(tags);
+        if (filteredTags.getPredicate() != null && !searchRerunPending) {
+            searchRerunPending = true;
+            Platform.runLater(this::rerunSearch);
+        }
+    }
+
+    private void rerunSearch() {
+        searchRerunPending = false;
+        List<ID3Tag> selected = new ArrayList<>(filesTableView.getSelectionModel().getSelectedItems());
+        filteredTags.setPredicate(searchIndex.search(searchField.getText()));
+        if (!filesTableView.getSelectionModel().getSelectedItems().equals(selected)) {
+            select(selected);
+        }
+    }
+
+    /**
+     * Selects exactly {@code tags} in the file table, clearing the search so they are all shown.
+     */
+    private void selectTags(List<ID3Tag> tags) {
+        searchField.clear();
+        int count = select(tags);
+        if (count > 0) {
+            filesTableView.scrollTo(filesTableView.getSelectionModel().getSelectedIndices().get(0));
+        }
+        statusLabel.setText(count + " extra cop" + (count == 1 ? "y" : "ies") + " selected.");
+    }
+
+    /**
+     * Selects those of {@code tags} that the file table shows, and only those, and returns how
+     * many that is.
+     */
+    private int select(Collection<ID3Tag> tags) {
+        Map<ID3Tag, Boolean> wanted = new IdentityHashMap<>();
+        tags.forEach(tag -> wanted.put(tag, Boolean.TRUE));
+        List<ID3Tag> rows = filesTableView.getItems();
+        int[] indices = new int[tags.size()];
+        int count = 0;
+        for (int i = 0; i < rows.size() && count < indices.length; i++) {
+            if (wanted.containsKey(rows.get(i))) {
+                indices[count++] = i;
+            }
+        }
+        filesTableView.getSelectionModel().clearSelection();
+        if (count > 0) {
+            filesTableView.getSelectionModel().selectIndices(indices[0], Arrays.copyOfRange(indices, 1, count));
+        }
+        return count;
+    }
+
+    @FXML
+    private void handleChangeArtworkButton() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Select Album Artwork");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Image Files", "*.jpg", "*.jpeg", "*.png"));
+        File selectedFile = fileChooser.showOpenDialog(primaryStage);
+        if (selectedFile != null) {
+            try {
+                ArtworkRef artwork = artworkStore.intern(Files.readAllBytes(selectedFile.toPath()));
+                Image image = new Image(new ByteArrayInputStream(artwork.getData()));
+                if (image.isError()) {
+                    throw image.getException();
+                }
+                artworkImageView.setImage(image);
+                pendingArtwork = artwork;
+                artworkChanged = true;
+                markAsChanged();
+            } catch (Exception e) {
+                showError("Artwork Error", "Could not load the selected image.");
+            }
+        }
+    }
+
+    @FXML
+    private void handleRemoveArtworkButton() {
+        artworkImageView.setImage(defaultArtwork());
+        pendingArtwork = null;
+        artworkChanged = true;
+        markAsChanged();
+    }
+
+    @FXML
+    private void handleShrinkArtworkButton() {
+        ObservableList<ID3Tag> selectedItems = filesTableView.getSelectionModel().getSelectedItems();
+        if (currentTask != null || selectedItems.isEmpty()) {
+            return;
+        }
+        updateTagsFromFields(selectedItems);
+        List<ID3Tag> withArtwork = selectedItems.stream().filter(tag -> tag.getArtwork() != null).toList();
+        if (withArtwork.isEmpty()) {
+            statusLabel.setText("None of the selected files have cover art.");
+            return;
+        }
+
+        ArtworkRecompressor recompressor = new ArtworkRecompressor(EditorSettings.artworkMaxDimension(), EditorSettings.artworkQuality());
+        ArtworkRecompressTask task = new ArtworkRecompressTask(tagService(), artworkStore, recompressor, withArtwork,
+                Runtime.getRuntime().availableProcessors());
+        runTask(task, "artwork-recompressor", (errors, cancelled) -> {
+            Map<ID3Tag, ArtworkRef> results = task.getResults();
+            EditHistory.Batch batch = history.begin("artwork shrink of " + results.size() + " file(s)");
+            results.forEach(batch::setArtwork);
+            record(batch);
+            queueWrites(results.keySet());
+            populateFieldsFromSelection();
+            String status = results.isEmpty()
+                    ? "Cover art is already within " + recompressor.getMaxDimension() + " px; nothing to shrink."
+                    : "Cover art of " + results.size() + " file(s) shrunk from " + formatBytes(task.getBytesBefore())
+                      + " to " + formatBytes(task.getBytesAfter()) + ". Click Save to apply.";
+            if (cancelled) {
+                status = "Recompression cancelled. " + status;
+            }
+            statusLabel.setText(status);
+            if (!errors.isEmpty()) {
+                showErrorSummary("Error Recompressing Artwork", errors.size() + " cover(s) could not be recompressed.", errors);
+            }
+        });
+    }
+
+    private void clearAllFields() {
+        titleField.clear();
+        artistField.clear();
+        albumField.clear();
+        yearField.clear();
+        genreField.clear();
+        trackField.clear();
+        trackTotalField.clear();
+        diskField.clear();
+        diskTotalField.clear();
+        commentField.clear();
+        lyricsArea.clear();
+
+        composerField.clear();
+        lyricistField.clear();
+        publisherField.clear();
+        copyrightField.clear();
+        bpmField.clear();
+        isrcField.clear();
+
+        artworkImageView.setImage(defaultArtwork());
+        encoderLabel.setText("-");
+        sizeLabel.setText("-");
+        durationLabel.setText("-");
+        bitrateLabel.setText("-");
+        mimeTypeLabel.setText("-");
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.US, "%.1f KiB", bytes / 1024.0);
+        }
+        return String.format(Locale.US, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private void markAsChanged() {
+        if (!library.isEmpty()) {
+            statusLabel.setText("Unsaved changes...");
+        }
+    }
+
+    private void showError(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    private void showErrorSummary(String title, String header, List<FileError> errors) {
+        TextArea details = new TextArea(errors.stream().map(FileError::toString).collect(Collectors.joining("\n")));
+        details.setEditable(false);
+        details.setWrapText(false);
+        details.setPrefRowCount(12);
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(header);
+        alert.getDialogPane().setContent(details);
+        alert.setResizable(true);
+        alert.showAndWait();
+    }
+
+    private void showInfo(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+}
\ No newline at end of file
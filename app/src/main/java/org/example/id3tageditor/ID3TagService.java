@@ -0,0 +1,378 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.AudioHeader;
+import org.jaudiotagger.audio.mp3.MP3AudioHeader;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+
+public class ID3TagService {
+
+    /**
+     * Duration, bitrate and format of a file's audio.
+     */
+    public record AudioDetails(int trackLength, String bitrate, String format) {
+
+        static AudioDetails of(AudioHeader audioHeader) {
+            return new AudioDetails(audioHeader.getTrackLength(), audioHeader.getBitRate() + " kbps", audioHeader.getFormat());
+        }
+
+        public void applyTo(ID3Tag tag) {
+            tag.setTrackLength(trackLength);
+            tag.setBitrate(bitrate);
+            tag.setMimeType(format);
+        }
+    }
+
+    private final TagCache cache;
+    private final TagMetrics metrics = TagMetrics.global();
+    private int paddingSize = EditorSettings.tagPadding();
+
+    public ID3TagService() {
+        this(null);
+    }
+
+    public ID3TagService(TagCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Loads jaudiotagger's readers and writers ahead of the first file, so that whoever calls
+     * this, rather than the first read, pays for it.
+     */
+    public static void preload() {
+        AudioFileIO.getDefaultAudioFileIO();
+    }
+
+    public int getPaddingSize() {
+        return paddingSize;
+    }
+
+    public void setPaddingSize(int paddingSize) {
+        this.paddingSize = Math.max(0, paddingSize);
+    }
+
+    /**
+     * Reads the full tag and audio header of a file.
+     */
+    public ID3Tag readTags(File file) throws Exception {
+        BasicFileAttributes attributes = null;
+        if (cache != null) {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            ID3Tag cached = cache.lookup(file, attributes);
+            metrics.tagCacheLookup(cached != null);
+            if (cached != null) {
+                metrics.fileRead();
+                if (cached.getTrackLength() < 0) {
+                    readAudioHeader(file).applyTo(cached);
+                }
+                cached.markClean();
+                return cached;
+            }
+        }
+
+        long start = System.nanoTime();
+        ID3Tag id3Tag = new ID3Tag();
+        id3Tag.setFilePath(file.getAbsolutePath());
+
+        try {
+            AudioFile audioFile = AudioFileIO.read(file);
+            Tag audioTag = audioFile.getTag();
+            AudioHeader audioHeader = audioFile.getAudioHeader();
+
+
+            if (audioTag != null) {
+                for (TagField field : TagField.values()) {
+                    id3Tag.set(field, audioTag.getFirst(field.getFieldKey()));
+                }
+
+                if (audioTag.getFirstArtwork() != null) {
+                    id3Tag.setArtwork(ArtworkRef.embedded());
+                }
+            }
+
+
+            id3Tag.setFileLength(file.length());
+            AudioDetails.of(audioHeader).applyTo(id3Tag);
+        } finally {
+            metrics.record(TagMetrics.Operation.READ_TAGS, start);
+        }
+
+        id3Tag.markClean();
+        metrics.fileRead();
+        if (cache != null) {
+            cache.store(file, id3Tag, attributes);
+        }
+        return id3Tag;
+    }
+
+    /**
+     * Reads just what the file table shows. For MP3s only the ID3v2 tag region (or the ID3v1
+     * block) is read and the audio header is left for {@link #readAudioHeader}; other formats,
+     * and tags the fast reader cannot handle, get a full read.
+     */
+    public ID3Tag readListing(File file) throws Exception {
+        BasicFileAttributes attributes = null;
+        if (cache != null) {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            ID3Tag cached = cache.lookup(file, attributes);
+            metrics.tagCacheLookup(cached != null);
+            if (cached != null) {
+                metrics.fileRead();
+                cached.markClean();
+                return cached;
+            }
+        }
+
+        ID3Tag id3Tag = null;
+        if (isMp3(file)) {
+            long start = System.nanoTime();
+            try {
+                id3Tag = FastTagReader.read(file);
+            } finally {
+                metrics.record(TagMetrics.Operation.READ_LISTING, start);
+            }
+        }
+        if (id3Tag == null) {
+            return readTags(file);
+        }
+
+        id3Tag.markClean();
+        metrics.fileRead();
+        if (cache != null) {
+            cache.store(file, id3Tag, attributes);
+        }
+        return id3Tag;
+    }
+
+    /**
+     * Whether a file is unchanged since this service last read or saved it. Always false
+     * without a tag cache.
+     */
+    public boolean isUpToDate(File file) throws IOException {
+        return cache != null && cache.isCurrent(file, Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+    }
+
+    /**
+     * Reads the duration, bitrate and format of a file whose tag was read with
+     * {@link #readListing}. Only these are added to the file's cache entry; the caller applies
+     * them to the tag, on the thread that owns it.
+     */
+    public AudioDetails readAudioHeader(File file) throws Exception {
+        long start = System.nanoTime();
+        AudioDetails details;
+        try {
+            AudioHeader audioHeader = isMp3(file)
+                    ? new MP3AudioHeader(file, FastTagReader.audioStart(file))
+                    : AudioFileIO.read(file).getAudioHeader();
+            details = AudioDetails.of(audioHeader);
+        } finally {
+            metrics.record(TagMetrics.Operation.READ_AUDIO_HEADER, start);
+        }
+
+        if (cache != null) {
+            cache.storeAudioDetails(file, Files.readAttributes(file.toPath(), BasicFileAttributes.class), details);
+        }
+        return details;
+    }
+
+    private static boolean isMp3(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".mp3");
+    }
+
+    /**
+     * Writes the fields and artwork that changed since the tag was read or last saved to
+     * {@code outputFile}, and returns the number of bytes written. Saving a clean tag back to its
+     * own file does nothing. MP3 tags are overwritten in place when they fit in the existing tag
+     * and its padding; an MP3 saved to another file is written in one pass as the new tag
+     * followed by the source's audio.
+     */
+    public long saveTags(ID3Tag tag, File outputFile) throws Exception {
+        File inputFile = new File(tag.getFilePath());
+        boolean sameFile = inputFile.getCanonicalPath().equals(outputFile.getCanonicalPath());
+        if (sameFile && !tag.isDirty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long bytesWritten = writeChanges(tag, inputFile, outputFile, sameFile);
+            metrics.fileSaved(bytesWritten);
+            return bytesWritten;
+        } finally {
+            metrics.record(TagMetrics.Operation.SAVE_TAGS, start);
+        }
+    }
+
+    private long writeChanges(ID3Tag tag, File inputFile, File outputFile, boolean sameFile) throws Exception {
+        // Rewriting the tags of an MP3 leaves its audio as it was, and so its hash.
+        String audioHash = cache != null && isMp3(inputFile)
+                ? cache.lookupAudioHash(inputFile, Files.readAttributes(inputFile.toPath(), BasicFileAttributes.class))
+                : null;
+        long bytesWritten = 0;
+        AudioFile audioFile;
+        if (sameFile || isMp3(inputFile)) {
+            audioFile = AudioFileIO.read(inputFile);
+        } else {
+            Files.copy(inputFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            bytesWritten = outputFile.length();
+            audioFile = AudioFileIO.read(outputFile);
+        }
+        applyChanges(tag, audioFile);
+
+        long writeStart = System.nanoTime();
+        try {
+            if (audioFile instanceof MP3File mp3File && mp3File.getID3v2Tag() != null) {
+                bytesWritten += sameFile
+                        ? Id3v2TagWriter.write(mp3File.getID3v2Tag(), outputFile, paddingSize)
+                        : Id3v2TagWriter.writeCopy(mp3File.getID3v2Tag(), inputFile, outputFile, paddingSize);
+            } else {
+                audioFile.commit();
+                bytesWritten += outputFile.length();
+            }
+        } finally {
+            metrics.record(TagMetrics.Operation.WRITE_TAGS, writeStart);
+        }
+
+        if (sameFile) {
+            tag.markClean();
+        }
+        if (cache != null) {
+            BasicFileAttributes attributes = Files.readAttributes(outputFile.toPath(), BasicFileAttributes.class);
+            if (sameFile) {
+                tag.setFileLength(attributes.size());
+            }
+            cache.store(outputFile, tag, attributes);
+            if (audioHash != null) {
+                cache.storeAudioHash(outputFile, attributes, audioHash);
+            }
+        }
+        return bytesWritten;
+    }
+
+    private void applyChanges(ID3Tag tag, AudioFile audioFile) throws Exception {
+        boolean newTag = audioFile.getTag() == null || (audioFile instanceof MP3File mp3 && mp3.getID3v2Tag() == null);
+        Tag audioTag = audioFile.getTagOrCreateAndSetDefault();
+
+        java.util.function.BiConsumer<FieldKey, String> updateOrDeleteField = (key, value) -> {
+            try {
+                if (value != null && !value.trim().isEmpty()) {
+                    audioTag.setField(key, value);
+                } else {
+                    audioTag.deleteField(key);
+                }
+            } catch (Exception e) {
+                System.err.println("Could not process field " + key + ": " + e.getMessage());
+            }
+        };
+
+        for (TagField field : TagField.values()) {
+            if (newTag || tag.isDirty(field)) {
+                updateOrDeleteField.accept(field.getFieldKey(), tag.get(field));
+            }
+        }
+
+        ArtworkRef artwork = tag.getArtwork();
+        if (tag.isArtworkDirty()) {
+            if (artwork == null) {
+                audioTag.deleteArtworkField();
+            } else if (!artwork.isEmbedded()) {
+                Artwork newArtwork = ArtworkFactory.getNew();
+                newArtwork.setBinaryData(artwork.getData());
+                newArtwork.setMimeType(artwork.getMimeType());
+                newArtwork.setPictureType(PictureTypes.DEFAULT_ID);
+                audioTag.deleteArtworkField();
+                audioTag.setField(newArtwork);
+            }
+        }
+    }
+
+    /**
+     * Moves a file, creating the target's folders as needed. Fails rather than replace an
+     * existing file.
+     */
+    public void moveFile(File source, File target) throws IOException {
+        Path parent = target.toPath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.move(source.toPath(), target.toPath());
+        if (cache != null) {
+            cache.rename(source, target);
+        }
+    }
+
+    /**
+     * Returns a hash of the audio of a file, leaving out its tags, so that copies of the same
+     * recording match however they are tagged; see {@link AudioHasher} for the formats this
+     * works for. The hash is kept in the tag cache until the file changes.
+     */
+    public String audioHash(File file) throws IOException {
+        BasicFileAttributes attributes = null;
+        if (cache != null) {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            String cached = cache.lookupAudioHash(file, attributes);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            String hash = AudioHasher.hash(file);
+            if (cache != null) {
+                cache.storeAudioHash(file, attributes, hash);
+            }
+            return hash;
+        } finally {
+            metrics.record(TagMetrics.Operation.HASH_AUDIO, start);
+        }
+    }
+
+    /**
+     * Drops the cached tags of a file that was deleted.
+     */
+    public void forget(File file) {
+        if (cache != null) {
+            cache.invalidate(file);
+        }
+    }
+
+    public void saveCache() {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.save();
+        } catch (IOException e) {
+            System.err.println("Could not write tag cache: " + e.getMessage());
+        }
+    }
+
+    public byte[] readArtworkData(File file) throws Exception {
+        long start = System.nanoTime();
+        try {
+            Tag audioTag = AudioFileIO.read(file).getTag();
+            Artwork artwork = audioTag != null ? audioTag.getFirstArtwork() : null;
+            byte[] data = artwork != null ? artwork.getBinaryData() : null;
+            if (data != null) {
+                metrics.addBytesRead(data.length);
+            }
+            return data;
+        } finally {
+            metrics.record(TagMetrics.Operation.READ_ARTWORK, start);
+        }
+    }
+}
\ No newline at end of file
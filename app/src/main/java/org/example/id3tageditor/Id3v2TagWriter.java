@@ -0,0 +1,104 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes an ID3v2 tag to an MP3. When the serialized tag fits in the space taken by the
+ * existing tag and its padding, only those bytes are overwritten. Otherwise the file is
+ * rebuilt once as new tag plus padding followed by the untouched audio, which is also how
+ * tagged copies are written.
+ */
+final class Id3v2TagWriter {
+
+    private Id3v2TagWriter() {
+    }
+
+    /**
+     * Returns the number of bytes written to the file.
+     */
+    static long write(AbstractID3v2Tag tag, File file, int padding) throws IOException {
+        long existingSize = FastTagReader.audioStart(file);
+        if (existingSize > 0 && existingSize <= Integer.MAX_VALUE && tag.getSize() <= existingSize) {
+            byte[] bytes = serialize(tag, (int) existingSize);
+            if (bytes.length == existingSize) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    writeFully(channel, ByteBuffer.wrap(bytes), 0);
+                }
+                return bytes.length;
+            }
+        }
+        return rewrite(tag, file, existingSize, file, padding);
+    }
+
+    /**
+     * Writes {@code target} as the given tag followed by the audio of {@code source}, in a single
+     * streaming pass, and returns the number of bytes written.
+     */
+    static long writeCopy(AbstractID3v2Tag tag, File source, File target, int padding) throws IOException {
+        return rewrite(tag, source, FastTagReader.audioStart(source), target, padding);
+    }
+
+    private static long rewrite(AbstractID3v2Tag tag, File source, long audioStart, File destination, int padding) throws IOException {
+        byte[] bytes = serialize(tag, tag.getSize() + Math.max(0, padding));
+        Path target = destination.toPath();
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), ".tunelabel-", ".tmp");
+        try {
+            long audioBytes;
+            try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(out, ByteBuffer.wrap(bytes), 0);
+                audioBytes = in.size() - audioStart;
+                transferFully(in, audioStart, audioBytes, out);
+            }
+            copyPermissions(source.toPath(), temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return bytes.length + audioBytes;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException | IOException e) {
+            // Not a POSIX file system; the temporary file keeps the default permissions.
+        }
+    }
+
+    private static byte[] serialize(AbstractID3v2Tag tag, int targetSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(targetSize);
+        tag.write(Channels.newChannel(out), targetSize);
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void transferFully(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        long outPosition = out.size();
+        out.position(outPosition);
+        long end = position + count;
+        while (position < end) {
+            long transferred = in.transferTo(position, end - position, out);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file while copying audio data");
+            }
+            position += transferred;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the folders of loaded files and reports files that were added, changed or deleted by
+ * other programs. Events are collected until the folder has been quiet for a moment (or a
+ * burst has gone on for too long) and each path is looked at once per batch. Changed files are
+ * re-read on the watcher thread; a file whose size and modification time still match what this
+ * editor last read or saved, such as one it just wrote itself, is left alone. Changes are
+ * delivered on the FX thread.
+ */
+public class LibraryWatcher implements AutoCloseable {
+
+    private static final long QUIET_MILLIS = 500;
+    private static final long MAX_DELAY_MILLIS = 5000;
+
+    /**
+     * One batch of changes. {@code modified} holds fresh reads that are meant to be applied to
+     * the loaded tags with {@link ID3Tag#reload}.
+     */
+    public record Changes(List<ID3Tag> added, List<ID3Tag> modified, List<ID3Tag> removed) {
+        public boolean isEmpty() {
+            return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final TagLibrary library;
+    private final ID3TagService tagService;
+    private final Consumer<Changes> onChanges;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // Loaded files per watched folder, so a folder is unwatched with its last file and an
+    // overflow can re-check everything in it.
+    private final Map<Path, Set<Path>> filesByDirectory = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keys = new HashMap<>();
+    private final ListChangeListener<ID3Tag> libraryListener = this::onLibraryChanged;
+    private volatile boolean paused;
+
+    public LibraryWatcher(TagLibrary library, ID3TagService tagService, Consumer<Changes> onChanges) throws IOException {
+        this.library = library;
+        this.tagService = tagService;
+        this.onChanges = onChanges;
+        this.watchService = Path.of("").getFileSystem().newWatchService();
+        this.thread = new Thread(this::run, "library-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the folders of everything loaded now or later. Call on the FX thread.
+     */
+    public void start() {
+        library.getTags().forEach(this::watch);
+        library.getTags().addListener(libraryListener);
+        thread.start();
+    }
+
+    /**
+     * While paused, events are still collected but not acted on, so files the editor is in the
+     * middle of saving are not read back half-written.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    @Override
+    public void close() {
+        library.getTags().removeListener(libraryListener);
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Could not close the folder watcher: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Follows a loaded file that the editor moved from {@code oldPath}; the tag already has
+     * its new path. Call on the FX thread.
+     */
+    public void moved(ID3Tag tag, Path oldPath) {
+        unwatch(oldPath);
+        watch(tag);
+    }
+
+    private void onLibraryChanged(ListChangeListener.Change<? extends ID3Tag> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(this::unwatch);
+            change.getAddedSubList().forEach(this::watch);
+        }
+    }
+
+    private void watch(ID3Tag tag) {
+        watch(Path.of(tag.getFilePath()));
+    }
+
+    private void unwatch(ID3Tag tag) {
+        unwatch(Path.of(tag.getFilePath()));
+    }
+
+    private synchronized void watch(Path path) {
+        Path file = path.toAbsolutePath();
+        Path directory = file.getParent();
+        filesByDirectory.computeIfAbsent(directory, dir -> ConcurrentHashMap.newKeySet()).add(file);
+        if (!keys.containsKey(directory)) {
+            try {
+                keys.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+            } catch (IOException | ClosedWatchServiceException e) {
+                System.err.println("Could not watch " + directory + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void unwatch(Path path) {
+        Path file = path.toAbsolutePath();
+        Path directory = file.getParent();
+        Set<Path> files = filesByDirectory.get(directory);
+        if (files != null && files.remove(file) && files.isEmpty()) {
+            filesByDirectory.remove(directory);
+            WatchKey key = keys.remove(directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    private void run() {
+        Set<Path> pending = new LinkedHashSet<>();
+        long firstEvent = 0;
+        long lastEvent = 0;
+        try {
+            while (true) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long due = Math.min(lastEvent + QUIET_MILLIS, firstEvent + MAX_DELAY_MILLIS);
+                    long wait = due - System.currentTimeMillis();
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.MILLISECONDS) : null;
+                }
+
+                if (key != null) {
+                    long now = System.currentTimeMillis();
+                    if (pending.isEmpty()) {
+                        firstEvent = now;
+                    }
+                    lastEvent = now;
+                    collect(key, pending);
+                } else if (paused) {
+                    firstEvent = lastEvent = System.currentTimeMillis();
+                } else {
+                    Changes changes = examine(pending);
+                    pending.clear();
+                    if (!changes.isEmpty()) {
+                        Platform.runLater(() -> onChanges.accept(changes));
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed.
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> pending) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                addDirectory(directory, pending);
+            } else {
+                pending.add(directory.resolve((Path) event.context()));
+            }
+        }
+        if (!key.reset()) {
+            // The folder itself is gone; everything loaded from it has to be checked.
+            pending.addAll(filesByDirectory.getOrDefault(directory, Set.of()));
+        }
+    }
+
+    private void addDirectory(Path directory, Set<Path> pending) {
+        pending.addAll(filesByDirectory.getOrDefault(directory, Set.of()));
+        try (var entries = Files.list(directory)) {
+            entries.forEach(pending::add);
+        } catch (IOException e) {
+            System.err.println("Could not list " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private Changes examine(Set<Path> paths) {
+        List<ID3Tag> added = new ArrayList<>();
+        List<ID3Tag> modified = new ArrayList<>();
+        List<ID3Tag> removed = new ArrayList<>();
+        for (Path path : paths) {
+            File file = path.toFile();
+            ID3Tag loaded = library.get(file);
+            if (!Files.isRegularFile(path)) {
+                tagService.forget(file);
+                if (loaded != null) {
+                    removed.add(loaded);
+                }
+                continue;
+            }
+            if (!FolderScanner.isSupported(path)) {
+                continue;
+            }
+            try {
+                if (loaded == null) {
+                    added.add(tagService.readListing(file));
+                } else if (!tagService.isUpToDate(file)) {
+                    modified.add(tagService.readListing(file));
+                }
+            } catch (Exception e) {
+                // Most likely still being written; the next event for it will retry.
+            }
+        }
+        return new Changes(added, modified, removed);
+    }
+}
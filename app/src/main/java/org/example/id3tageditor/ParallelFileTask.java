@@ -0,0 +1,162 @@
+package org.example.id3tageditor;
+
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link #process} for each item on virtual threads, with at most {@code parallelism} in
+ * flight. Items come either from a list or from a {@link Source} that produces them while the
+ * task runs; a source is held back while all permits are in use. Cancelling stops new items
+ * from starting; items already running finish. The task's state turns to cancelled at once,
+ * but {@link #call()} returns only after those items are done, so callers that touch the same
+ * files wait for {@link #run()} to return. Progress and a status message are updated as items
+ * complete, and the task's value is the list of items that failed.
+ */
+abstract class ParallelFileTask<T> extends Task<List<FileError>> {
+
+    /**
+     * Produces items for a task, possibly from several threads at once. The sink throws
+     * {@link CancellationException} once the task has been cancelled, which should end the
+     * source.
+     */
+    @FunctionalInterface
+    interface Source<T> {
+        void forEach(Consumer<? super T> sink) throws Exception;
+    }
+
+    private final Source<T> source;
+    private final int knownTotal;
+    private final int parallelism;
+    private final String verb;
+
+    private final Queue<FileError> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private long startNanos;
+
+    protected ParallelFileTask(List<T> items, int parallelism, String verb) {
+        List<T> copy = List.copyOf(items);
+        this.source = copy::forEach;
+        this.knownTotal = copy.size();
+        this.parallelism = Math.max(1, parallelism);
+        this.verb = verb;
+    }
+
+    protected ParallelFileTask(Source<T> source, int parallelism, String verb) {
+        this.source = source;
+        this.knownTotal = -1;
+        this.parallelism = Math.max(1, parallelism);
+        this.verb = verb;
+    }
+
+    protected abstract File fileOf(T item);
+
+    protected abstract void process(T item) throws Exception;
+
+    /**
+     * Called on the worker thread after each item, whether it succeeded or not.
+     */
+    protected void itemCompleted() {
+    }
+
+    /**
+     * Called on the task thread once every started item has finished.
+     */
+    protected void allCompleted() {
+    }
+
+    protected int completedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Time since the task started running, for throughput figures.
+     */
+    protected long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Cancels without interrupting the task thread: an interrupt would make the executor stop
+     * the items in flight, and a file write cut short fails or is left half done. New items are
+     * not started once {@link #isCancelled()} is true.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return super.cancel(false);
+    }
+
+    @Override
+    protected List<FileError> call() throws Exception {
+        startNanos = System.nanoTime();
+        updateProgress(knownTotal >= 0 ? 0 : -1, Math.max(knownTotal, 1));
+        Semaphore permits = new Semaphore(parallelism);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                source.forEach(item -> submit(item, executor, permits));
+            } catch (CancellationException e) {
+                // Cancelled while the source was still producing items.
+            }
+        }
+
+        allCompleted();
+        return List.copyOf(errors);
+    }
+
+    private void submit(T item, ExecutorService executor, Semaphore permits) {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+        try {
+            // A source may call this on fork/join workers (FolderScanner does); a managed wait
+            // lets the pool start another worker instead of running short while this one waits.
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    permits.acquire();
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return permits.tryAcquire();
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+        submitted.incrementAndGet();
+        executor.submit(() -> {
+            try {
+                if (!isCancelled()) {
+                    process(item);
+                }
+            } catch (Exception e) {
+                errors.add(FileError.of(fileOf(item), e));
+            } finally {
+                permits.release();
+                int done = completed.incrementAndGet();
+                if (knownTotal >= 0) {
+                    updateProgress(done, knownTotal);
+                    updateMessage(verb + " " + done + " of " + knownTotal + " files...");
+                } else {
+                    updateMessage(verb + " " + done + " of " + submitted.get() + " files found so far...");
+                }
+                itemCompleted();
+            }
+        });
+    }
+}
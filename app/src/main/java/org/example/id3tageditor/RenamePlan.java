@@ -0,0 +1,125 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The file moves a {@link FilenamePattern} asks for, worked out for many tags in one pass before
+ * anything is touched. Each target is claimed in a hash set, so two files aiming at the same name
+ * are caught without comparing every pair; names are compared ignoring case, since that is what
+ * decides a clash on Windows and macOS. Targets that already exist on disk are not overwritten.
+ */
+public final class RenamePlan {
+
+    public enum Status {
+        MOVE("Move"),
+        UNCHANGED("Unchanged"),
+        MISSING_FIELDS("Missing tag values"),
+        COLLISION("Same target as another file"),
+        EXISTS("Target exists");
+
+        private final String description;
+
+        Status(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public record Entry(ID3Tag tag, Path source, Path target, Status status) {
+    }
+
+    private final List<Entry> entries;
+    private final List<Entry> moves;
+
+    private RenamePlan(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+        this.moves = this.entries.stream().filter(entry -> entry.status() == Status.MOVE).toList();
+    }
+
+    /**
+     * Plans moving {@code tags} to {@code pattern}. With a {@code root} folder the pattern is
+     * resolved against it, otherwise against each file's own folder. The extension is kept.
+     */
+    public static RenamePlan create(List<ID3Tag> tags, FilenamePattern pattern, Path root) {
+        List<Entry> entries = new ArrayList<>(tags.size());
+        Set<String> claimed = new HashSet<>();
+        List<Integer> claimants = new ArrayList<>();
+        for (ID3Tag tag : tags) {
+            Path source = Path.of(tag.getFilePath()).toAbsolutePath().normalize();
+            String relative = pattern.format(tag);
+            if (relative == null) {
+                entries.add(new Entry(tag, source, null, Status.MISSING_FIELDS));
+                continue;
+            }
+            String name = source.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String extension = dot > 0 ? name.substring(dot) : "";
+            Path base = root != null ? root : source.getParent();
+            Path target = base.resolve(relative.replace('/', File.separatorChar) + extension).toAbsolutePath().normalize();
+
+            Status status;
+            if (target.equals(source)) {
+                status = Status.UNCHANGED;
+            } else if (!claimed.add(key(target))) {
+                status = Status.COLLISION;
+            } else if (Files.exists(target) && !key(target).equals(key(source))) {
+                status = Status.EXISTS;
+            } else {
+                status = Status.MOVE;
+                claimants.add(entries.size());
+            }
+            entries.add(new Entry(tag, source, target, status));
+        }
+
+        // The first file to claim a name is only known to collide once a later one asks for it.
+        Set<String> contested = new HashSet<>();
+        for (Entry entry : entries) {
+            if (entry.status() == Status.COLLISION) {
+                contested.add(key(entry.target()));
+            }
+        }
+        if (!contested.isEmpty()) {
+            for (int index : claimants) {
+                Entry entry = entries.get(index);
+                if (contested.contains(key(entry.target()))) {
+                    entries.set(index, new Entry(entry.tag(), entry.source(), entry.target(), Status.COLLISION));
+                }
+            }
+        }
+        return new RenamePlan(entries);
+    }
+
+    /**
+     * Plans moving one file to {@code target}, a name the user typed and the caller has checked
+     * is free.
+     */
+    public static RenamePlan single(ID3Tag tag, Path target) {
+        Path source = Path.of(tag.getFilePath()).toAbsolutePath().normalize();
+        return new RenamePlan(List.of(new Entry(tag, source, target.toAbsolutePath().normalize(), Status.MOVE)));
+    }
+
+    private static String key(Path path) {
+        return path.toString().toLowerCase(Locale.ROOT);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The entries that will actually be moved.
+     */
+    public List<Entry> getMoves() {
+        return moves;
+    }
+}
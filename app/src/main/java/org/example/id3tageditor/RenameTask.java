@@ -0,0 +1,46 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Carries out the moves of a {@link RenamePlan} in parallel. Loaded tags are left alone; the
+ * moves that succeeded are handed back through {@link #getCompleted()} so the caller can point
+ * each tag at its new path on the FX thread.
+ */
+public class RenameTask extends ParallelFileTask<RenamePlan.Entry> {
+
+    private final ID3TagService tagService;
+    private final Queue<RenamePlan.Entry> completed = new ConcurrentLinkedQueue<>();
+
+    public RenameTask(ID3TagService tagService, RenamePlan plan, int parallelism) {
+        super(plan.getMoves(), parallelism, "Moving");
+        this.tagService = tagService;
+    }
+
+    @Override
+    protected File fileOf(RenamePlan.Entry entry) {
+        return entry.source().toFile();
+    }
+
+    @Override
+    protected void process(RenamePlan.Entry entry) throws Exception {
+        tagService.moveFile(entry.source().toFile(), entry.target().toFile());
+        completed.add(entry);
+    }
+
+    @Override
+    protected void allCompleted() {
+        tagService.saveCache();
+    }
+
+    /**
+     * The moves that succeeded. Complete only once {@link #run()} has returned: after a cancel,
+     * moves already in flight are still added as they finish.
+     */
+    public List<RenamePlan.Entry> getCompleted() {
+        return List.copyOf(completed);
+    }
+}
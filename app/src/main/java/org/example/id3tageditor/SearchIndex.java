@@ -0,0 +1,311 @@
+package org.example.id3tageditor;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the words of the title, artist, album, genre, year and file name of every
+ * loaded tag, kept up to date from the library's change events. A query is a list of words that
+ * must all occur, each as the start of some indexed word, ignoring case and accents: "beat abb"
+ * finds the Beatles' Abbey Road. Matching walks the postings of the words sharing each query
+ * prefix, so the cost depends on how many tags match rather than on how many are loaded.
+ * <p>
+ * Changes to loaded tags are not observable, so call {@link #update} after editing or renaming.
+ * All methods must be called on the FX thread.
+ */
+public final class SearchIndex implements ListChangeListener<ID3Tag> {
+
+    private static final TagField[] INDEXED_FIELDS = {
+            TagField.TITLE, TagField.ARTIST, TagField.ALBUM, TagField.GENRE, TagField.YEAR};
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Postings[] NO_POSTINGS = new Postings[0];
+    // Lower-case, accent-free spelling of the non-ASCII characters seen so far.
+    private static final Map<Character, String> FOLDED = new ConcurrentHashMap<>();
+
+    /** Sorted ids of the documents containing one word. */
+    private static final class Postings {
+        final String word;
+        int[] ids = new int[2];
+        int size;
+
+        Postings(String word) {
+            this.word = word;
+        }
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                index = -index - 1;
+                ensureCapacity();
+                System.arraycopy(ids, index, ids, index + 1, size - index);
+                ids[index] = id;
+                size++;
+            }
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+
+    private static final class Document {
+        final int id;
+        Postings[] words = NO_POSTINGS;
+
+        Document(int id) {
+            this.id = id;
+        }
+    }
+
+    private final Map<ID3Tag, Document> documents = new IdentityHashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // Ids are never reused, so a document added after a query ran has an id beyond its results.
+    private int nextId;
+    // All words in order, for prefix lookups; rebuilt on the first query after words change.
+    private String[] sortedWords;
+
+    public SearchIndex(ObservableList<ID3Tag> tags) {
+        addAll(tags);
+        tags.addListener(this);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public void onChanged(Change<? extends ID3Tag> change) {
+        while (change.next()) {
+            for (ID3Tag tag : change.getRemoved()) {
+                remove(tag);
+            }
+            addAll(change.getAddedSubList());
+        }
+    }
+
+    /**
+     * Re-indexes tags whose values or file names changed.
+     */
+    public void update(Collection<ID3Tag> tags) {
+        for (ID3Tag tag : tags) {
+            Document document = documents.get(tag);
+            if (document != null) {
+                index(document, tag);
+            }
+        }
+    }
+
+    /**
+     * Returns a filter for the tags matching {@code query}, or {@code null} for a blank query.
+     * The matches are computed once, up front; tags added to the index later are matched
+     * individually when the filter is asked about them.
+     */
+    public Predicate<ID3Tag> search(String query) {
+        String[] terms = words(query);
+        if (terms.length == 0) {
+            return null;
+        }
+        int limit = nextId;
+        BitSet hits = null;
+        for (String term : terms) {
+            BitSet termHits = new BitSet(limit);
+            for (Postings word : wordsStartingWith(term)) {
+                for (int i = 0; i < word.size; i++) {
+                    termHits.set(word.ids[i]);
+                }
+            }
+            if (hits == null) {
+                hits = termHits;
+            } else {
+                hits.and(termHits);
+            }
+            if (hits.isEmpty()) {
+                break;
+            }
+        }
+        BitSet matches = hits;
+        return tag -> {
+            Document document = documents.get(tag);
+            if (document == null) {
+                return false;
+            }
+            return document.id < limit ? matches.get(document.id) : matchesAll(document, terms);
+        };
+    }
+
+    private void addAll(List<? extends ID3Tag> tags) {
+        for (ID3Tag tag : tags) {
+            if (!documents.containsKey(tag)) {
+                Document document = new Document(nextId++);
+                documents.put(tag, document);
+                index(document, tag);
+            }
+        }
+    }
+
+    private void remove(ID3Tag tag) {
+        Document document = documents.remove(tag);
+        if (document != null) {
+            unindex(document);
+        }
+    }
+
+    private void index(Document document, ID3Tag tag) {
+        List<String> found = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (TagField field : INDEXED_FIELDS) {
+            String value = tag.get(field);
+            if (value != null) {
+                split(value, value.length(), found, word);
+            }
+        }
+        String fileName = tag.getFileName();
+        int dot = fileName.lastIndexOf('.');
+        split(fileName, dot > 0 ? dot : fileName.length(), found, word);
+
+        String[] words = sortedDistinct(found);
+        if (sameWords(document.words, words)) {
+            return;
+        }
+        unindex(document);
+        Postings[] indexed = new Postings[words.length];
+        for (int i = 0; i < words.length; i++) {
+            indexed[i] = postings.computeIfAbsent(words[i], newWord -> {
+                sortedWords = null;
+                return new Postings(newWord);
+            });
+            indexed[i].add(document.id);
+        }
+        document.words = indexed;
+    }
+
+    private void unindex(Document document) {
+        for (Postings word : document.words) {
+            word.remove(document.id);
+            if (word.size == 0) {
+                postings.remove(word.word);
+                sortedWords = null;
+            }
+        }
+        document.words = NO_POSTINGS;
+    }
+
+    private static boolean sameWords(Postings[] indexed, String[] words) {
+        if (indexed.length != words.length) {
+            return false;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if (!indexed[i].word.equals(words[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAll(Document document, String[] terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (Postings word : document.words) {
+                if (word.word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Postings> wordsStartingWith(String prefix) {
+        if (sortedWords == null) {
+            sortedWords = postings.keySet().toArray(new String[0]);
+            Arrays.sort(sortedWords);
+        }
+        List<Postings> matches = new ArrayList<>();
+        int index = Arrays.binarySearch(sortedWords, prefix);
+        for (int i = index >= 0 ? index : -index - 1; i < sortedWords.length && sortedWords[i].startsWith(prefix); i++) {
+            matches.add(postings.get(sortedWords[i]));
+        }
+        return matches;
+    }
+
+    /**
+     * Splits text into distinct lower-case words without accents, sorted.
+     */
+    static String[] words(String text) {
+        List<String> words = new ArrayList<>();
+        split(text, text.length(), words, new StringBuilder());
+        return sortedDistinct(words);
+    }
+
+    private static void split(String text, int end, List<String> words, StringBuilder word) {
+        for (int i = 0; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            if (c < 0x80) {
+                if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9') {
+                    word.append(c);
+                    continue;
+                }
+                if (c >= 'A' && c <= 'Z') {
+                    word.append((char) (c + ('a' - 'A')));
+                    continue;
+                }
+            } else if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+                word.append(FOLDED.computeIfAbsent(c, SearchIndex::fold));
+                continue;
+            }
+            if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+    }
+
+    private static String[] sortedDistinct(List<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (String word : sorted) {
+            if (distinct == 0 || !word.equals(sorted[distinct - 1])) {
+                sorted[distinct++] = word;
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+
+    private static String fold(char c) {
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.id3tageditor;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-field value counts for the current table selection, kept up to date from the selection's
+ * change events so that asking whether a field has one common value is O(1) however many rows
+ * are selected. Each member's values are remembered as they were counted, so a tag edited while
+ * selected is uncounted correctly; call {@link #update} after editing selected tags.
+ */
+public final class SelectionAggregate implements ListChangeListener<ID3Tag> {
+
+    private static final TagField[] FIELDS = TagField.values();
+
+    private final ObservableList<ID3Tag> selection;
+    private final Map<ID3Tag, String[]> counted = new IdentityHashMap<>();
+    private final Map<TagField, Map<String, Integer>> counts = new EnumMap<>(TagField.class);
+
+    public SelectionAggregate(ObservableList<ID3Tag> selection) {
+        this.selection = selection;
+        for (TagField field : FIELDS) {
+            counts.put(field, new HashMap<>());
+        }
+        rebuild();
+        selection.addListener(this);
+    }
+
+    public int size() {
+        return counted.size();
+    }
+
+    /**
+     * The value every selected tag has for {@code field}, or an empty string if the values
+     * differ or nothing is selected.
+     */
+    public String commonValue(TagField field) {
+        Map<String, Integer> values = counts.get(field);
+        if (values.size() != 1) {
+            return "";
+        }
+        String value = values.keySet().iterator().next();
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Works out which fields an edit of the whole selection writes, given the text of each
+     * field's editor: every field with text, and every field that is empty in the editor
+     * without the selection sharing a value for it.
+     */
+    public Map<TagField, String> editsFrom(Map<TagField, String> texts) {
+        Map<TagField, String> edits = new EnumMap<>(TagField.class);
+        texts.forEach((field, text) -> {
+            if (!text.isEmpty() || commonValue(field).isEmpty()) {
+                edits.put(field, text);
+            }
+        });
+        return edits;
+    }
+
+    /**
+     * Recounts tags whose values changed while they were selected.
+     */
+    public void update(Collection<ID3Tag> tags) {
+        for (ID3Tag tag : tags) {
+            if (counted.containsKey(tag)) {
+                remove(tag);
+                add(tag);
+            }
+        }
+    }
+
+    @Override
+    public void onChanged(Change<? extends ID3Tag> change) {
+        while (change.next()) {
+            for (ID3Tag tag : change.getRemoved()) {
+                remove(tag);
+            }
+            for (ID3Tag tag : change.getAddedSubList()) {
+                add(tag);
+            }
+        }
+        // Selection models have been known to report removals imprecisely; start over rather
+        // than drift.
+        if (counted.size() != selection.size()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        counted.clear();
+        for (Map<String, Integer> values : counts.values()) {
+            values.clear();
+        }
+        for (ID3Tag tag : selection) {
+            add(tag);
+        }
+    }
+
+    private void add(ID3Tag tag) {
+        if (tag == null || counted.containsKey(tag)) {
+            return;
+        }
+        String[] values = new String[FIELDS.length];
+        for (TagField field : FIELDS) {
+            String value = tag.get(field);
+            values[field.ordinal()] = value;
+            counts.get(field).merge(value, 1, Integer::sum);
+        }
+        counted.put(tag, values);
+    }
+
+    private void remove(ID3Tag tag) {
+        String[] values = counted.remove(tag);
+        if (values == null) {
+            return;
+        }
+        for (TagField field : FIELDS) {
+            counts.get(field).computeIfPresent(values[field.ordinal()], (value, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
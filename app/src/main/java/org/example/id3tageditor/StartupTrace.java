@@ -0,0 +1,52 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+/**
+ * Start-up milestones for the startup benchmark. With {@code tunelabel.startupTrace} set, each
+ * is printed to standard output as {@code startup <milestone> <epoch millis>}, so that a parent
+ * process can measure from the moment it launched the editor.
+ */
+final class StartupTrace {
+
+    static final String FIRST_FRAME = "first-frame";
+    static final String FIRST_ROW = "first-row";
+
+    private static final boolean ENABLED = EditorSettings.startupTrace();
+
+    private StartupTrace() {
+    }
+
+    static boolean enabled() {
+        return ENABLED;
+    }
+
+    static void mark(String milestone) {
+        if (ENABLED) {
+            System.out.println("startup " + milestone + " " + System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Runs {@code action} once, on the FX thread, when the next frame of {@code scene} has been
+     * laid out.
+     */
+    static void afterNextPulse(Scene scene, Runnable action) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                // The scene is still iterating over its listeners.
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                action.run();
+            }
+        });
+        Platform.requestNextPulse();
+    }
+}
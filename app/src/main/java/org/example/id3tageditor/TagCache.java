@@ -0,0 +1,349 @@
+package org.example.id3tageditor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of parsed tags, keyed by absolute path and validated against the file's
+ * length and modification time, so unchanged files can be listed without being opened. An
+ * entry can also hold the hash of the file's audio stream once it has been computed.
+ * <p>
+ * The cache file is a binary snapshot. Strings are written once and referenced by index
+ * afterwards, which keeps values shared across an album (artist, album, genre...) small on
+ * disk and shared in memory after loading.
+ */
+public class TagCache {
+
+    private static final int MAGIC = 0x544C4301;
+    private static final int VERSION = 3;
+    private static final int NULL_STRING = -1;
+    private static final int NEW_STRING = -2;
+    private static final TagField[] FIELDS = TagField.values();
+
+    private static final class Entry {
+        long length;
+        long lastModified;
+        String[] values;
+        int trackLength;
+        String bitrate;
+        String mimeType;
+        boolean hasArtwork;
+        volatile String audioHash;
+        // Whether the file is known to exist in this session; not saved.
+        volatile boolean present;
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+
+    public TagCache(Path file) {
+        this.file = file;
+    }
+
+    public static Path defaultLocation() {
+        return Path.of(System.getProperty("user.home"), ".tunelabel", "tag-cache.bin");
+    }
+
+    public ID3Tag lookup(File audioFile, BasicFileAttributes attributes) {
+        ensureLoaded();
+        String path = audioFile.getAbsolutePath();
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.length != attributes.size() || entry.lastModified != attributes.lastModifiedTime().toMillis()) {
+            entries.remove(path, entry);
+            dirty = true;
+            return null;
+        }
+        entry.present = true;
+
+        ID3Tag tag = new ID3Tag();
+        tag.setFilePath(path);
+        for (TagField field : FIELDS) {
+            tag.set(field, entry.values[field.ordinal()]);
+        }
+        tag.setFileLength(entry.length);
+        tag.setTrackLength(entry.trackLength);
+        tag.setBitrate(entry.bitrate);
+        tag.setMimeType(entry.mimeType);
+        if (entry.hasArtwork) {
+            tag.setArtwork(ArtworkRef.embedded());
+        }
+        return tag;
+    }
+
+    /**
+     * Whether the cached entry for a file still matches its size and modification time, that
+     * is, whether the file is unchanged since it was last read or saved through this cache.
+     */
+    public boolean isCurrent(File audioFile, BasicFileAttributes attributes) {
+        ensureLoaded();
+        Entry entry = entries.get(audioFile.getAbsolutePath());
+        return entry != null && entry.length == attributes.size()
+                && entry.lastModified == attributes.lastModifiedTime().toMillis();
+    }
+
+    public void store(File audioFile, ID3Tag tag, BasicFileAttributes attributes) {
+        ensureLoaded();
+        Entry entry = new Entry();
+        entry.length = attributes.size();
+        entry.lastModified = attributes.lastModifiedTime().toMillis();
+        entry.values = new String[FIELDS.length];
+        for (TagField field : FIELDS) {
+            entry.values[field.ordinal()] = tag.get(field);
+        }
+        entry.trackLength = tag.getTrackLength();
+        entry.bitrate = tag.getBitrate();
+        entry.mimeType = tag.getMimeType();
+        entry.hasArtwork = tag.getArtwork() != null;
+        entry.present = true;
+        String path = audioFile.getAbsolutePath();
+        // Re-reading an unchanged file keeps the hash of its audio.
+        Entry previous = entries.get(path);
+        if (previous != null && previous.length == entry.length && previous.lastModified == entry.lastModified) {
+            entry.audioHash = previous.audioHash;
+        }
+        entries.put(path, entry);
+        dirty = true;
+    }
+
+    /**
+     * Adds the audio details of a file to its entry, if that is current. The tag values of the
+     * entry are left as they are, since the tag that was read may have been edited since.
+     */
+    public void storeAudioDetails(File audioFile, BasicFileAttributes attributes, ID3TagService.AudioDetails details) {
+        ensureLoaded();
+        String path = audioFile.getAbsolutePath();
+        Entry entry = entries.get(path);
+        if (entry == null || entry.length != attributes.size()
+                || entry.lastModified != attributes.lastModifiedTime().toMillis()) {
+            return;
+        }
+        // A copy, so that a concurrent save writes either the old entry or the complete new one.
+        Entry updated = new Entry();
+        updated.length = entry.length;
+        updated.lastModified = entry.lastModified;
+        updated.values = entry.values;
+        updated.hasArtwork = entry.hasArtwork;
+        updated.audioHash = entry.audioHash;
+        updated.present = entry.present;
+        updated.trackLength = details.trackLength();
+        updated.bitrate = details.bitrate();
+        updated.mimeType = details.format();
+        if (entries.replace(path, entry, updated)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * The cached audio hash of a file, or {@code null} if it has not been hashed since it last
+     * changed.
+     */
+    public String lookupAudioHash(File audioFile, BasicFileAttributes attributes) {
+        ensureLoaded();
+        Entry entry = entries.get(audioFile.getAbsolutePath());
+        if (entry == null || entry.length != attributes.size()
+                || entry.lastModified != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return entry.audioHash;
+    }
+
+    /**
+     * Records the audio hash of a file whose tags are cached for the same size and modification
+     * time; otherwise the hash is not kept.
+     */
+    public void storeAudioHash(File audioFile, BasicFileAttributes attributes, String audioHash) {
+        ensureLoaded();
+        Entry entry = entries.get(audioFile.getAbsolutePath());
+        if (entry != null && entry.length == attributes.size()
+                && entry.lastModified == attributes.lastModifiedTime().toMillis()) {
+            entry.audioHash = audioHash;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Carries a file's entry over to the path it was moved to.
+     */
+    public void rename(File from, File to) {
+        ensureLoaded();
+        Entry entry = entries.remove(from.getAbsolutePath());
+        if (entry != null) {
+            entries.put(to.getAbsolutePath(), entry);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drops the entry of a file, for example one that was deleted.
+     */
+    public void invalidate(File audioFile) {
+        ensureLoaded();
+        if (entries.remove(audioFile.getAbsolutePath()) != null) {
+            dirty = true;
+        }
+    }
+
+    public synchronized void save() throws IOException {
+        if (!loaded || !dirty) {
+            return;
+        }
+        // Cleared before the snapshot is taken, so changes made during the write mark it dirty again.
+        dirty = false;
+        pruneMissing();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            write(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            throw e;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drops the entries of files that no longer exist. Files looked up or stored in this session
+     * are known to exist, so only the others are checked, each once per session.
+     */
+    private void pruneMissing() {
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.present) {
+                continue;
+            }
+            if (Files.exists(Path.of(mapEntry.getKey()))) {
+                entry.present = true;
+            } else {
+                entries.remove(mapEntry.getKey(), entry);
+            }
+        }
+    }
+
+    private void write(Path temp) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            Map<String, Integer> strings = new HashMap<>();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(FIELDS.length);
+            List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> mapEntry : snapshot) {
+                Entry entry = mapEntry.getValue();
+                writeString(out, mapEntry.getKey(), null);
+                out.writeLong(entry.length);
+                out.writeLong(entry.lastModified);
+                for (String value : entry.values) {
+                    writeString(out, value, strings);
+                }
+                out.writeInt(entry.trackLength);
+                writeString(out, entry.bitrate, strings);
+                writeString(out, entry.mimeType, strings);
+                out.writeBoolean(entry.hasArtwork);
+                writeString(out, entry.audioHash, null);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != FIELDS.length) {
+                return;
+            }
+            List<String> strings = new ArrayList<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(in, null);
+                Entry entry = new Entry();
+                entry.length = in.readLong();
+                entry.lastModified = in.readLong();
+                entry.values = new String[FIELDS.length];
+                for (int f = 0; f < FIELDS.length; f++) {
+                    entry.values[f] = readString(in, strings);
+                }
+                entry.trackLength = in.readInt();
+                entry.bitrate = readString(in, strings);
+                entry.mimeType = readString(in, strings);
+                entry.hasArtwork = in.readBoolean();
+                entry.audioHash = readString(in, null);
+                entries.put(path, entry);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable tag cache " + file + ": " + e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value, Map<String, Integer> strings) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        if (strings != null) {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            strings.put(value, strings.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(NEW_STRING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in, List<String> strings) throws IOException {
+        int code = in.readInt();
+        if (code == NULL_STRING) {
+            return null;
+        }
+        if (code >= 0) {
+            return strings.get(code);
+        }
+        if (code != NEW_STRING) {
+            throw new IOException("Corrupt string marker " + code);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (strings != null) {
+            strings.add(value);
+        }
+        return value;
+    }
+}
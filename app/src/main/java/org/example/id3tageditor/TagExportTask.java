@@ -0,0 +1,43 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the loaded tags to a {@link TagTable} file, one row at a time.
+ */
+public class TagExportTask extends ParallelFileTask<ID3Tag> {
+
+    private final TagTableWriter writer;
+
+    public TagExportTask(List<ID3Tag> tags, Path table) throws IOException {
+        super(tags, 1, "Exporting");
+        this.writer = TagTableWriter.open(table, TagTable.Format.of(table));
+    }
+
+    @Override
+    protected File fileOf(ID3Tag tag) {
+        return new File(tag.getFilePath());
+    }
+
+    @Override
+    protected void process(ID3Tag tag) throws Exception {
+        writer.write(tag);
+    }
+
+    @Override
+    protected void allCompleted() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRowCount() {
+        return writer.getRowCount();
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * The editable text fields of an {@link ID3Tag}, in storage order. Shared fields tend to repeat
+ * across a whole album or library and are interned when stored.
+ */
+public enum TagField {
+    TITLE("title", FieldKey.TITLE, false),
+    ARTIST("artist", FieldKey.ARTIST, true),
+    ALBUM("album", FieldKey.ALBUM, true),
+    YEAR("year", FieldKey.YEAR, true),
+    GENRE("genre", FieldKey.GENRE, true),
+    COMMENT("comment", FieldKey.COMMENT, false),
+    TRACK("track", FieldKey.TRACK, true),
+    TRACK_TOTAL("trackTotal", FieldKey.TRACK_TOTAL, true),
+    DISK("disk", FieldKey.DISC_NO, true),
+    DISK_TOTAL("diskTotal", FieldKey.DISC_TOTAL, true),
+    LYRICS("lyrics", FieldKey.LYRICS, false),
+    ENCODER("encoder", FieldKey.ENCODER, true),
+    COMPOSER("composer", FieldKey.COMPOSER, true),
+    LYRICIST("lyricist", FieldKey.LYRICIST, true),
+    PUBLISHER("publisher", FieldKey.RECORD_LABEL, true),
+    COPYRIGHT("copyright", FieldKey.COPYRIGHT, true),
+    BPM("bpm", FieldKey.BPM, true),
+    ISRC("isrc", FieldKey.ISRC, false);
+
+    private final String propertyName;
+    private final FieldKey fieldKey;
+    private final boolean shared;
+
+    TagField(String propertyName, FieldKey fieldKey, boolean shared) {
+        this.propertyName = propertyName;
+        this.fieldKey = fieldKey;
+        this.shared = shared;
+    }
+
+    public String getPropertyName() { return propertyName; }
+    public FieldKey getFieldKey() { return fieldKey; }
+    public boolean isShared() { return shared; }
+}
@@ -0,0 +1,129 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams the rows of a {@link TagTable} file and matches each to a loaded tag by path. Matched
+ * rows are handed to the FX thread in batches, where the values that differ from the tag are
+ * worked out, since tags are edited there, and passed to {@code changeConsumer} to be applied.
+ * At most {@value #MAX_PENDING} rows wait at a time; reading pauses until the FX thread has
+ * taken them, so a table of any size is read in bounded memory. The last batch is posted before
+ * the task returns, also when it has been cancelled.
+ */
+public class TagImportTask extends ParallelFileTask<TagTable.Row> {
+
+    private static final int MAX_PENDING = 10_000;
+
+    /**
+     * The values to set on one loaded tag; {@code null} clears a field.
+     */
+    public record Change(ID3Tag tag, Map<TagField, String> values) {
+    }
+
+    private record Match(ID3Tag tag, TagTable.Row row) {
+    }
+
+    private final Function<File, ID3Tag> lookup;
+    private final Consumer<List<Change>> changeConsumer;
+
+    private final Queue<Match> pending = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity = new Semaphore(MAX_PENDING);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger notLoaded = new AtomicInteger();
+
+    /**
+     * @param lookup finds the loaded tag of a file, or returns {@code null}; it is called off the
+     *               FX thread while the library is not being changed
+     */
+    public TagImportTask(Path table, Function<File, ID3Tag> lookup, Consumer<List<Change>> changeConsumer) {
+        super(sink -> {
+            try (TagTableReader reader = TagTableReader.open(table, TagTable.Format.of(table))) {
+                TagTable.Row row;
+                while ((row = reader.next()) != null) {
+                    sink.accept(row);
+                }
+            }
+        }, 1, "Importing");
+        this.lookup = lookup;
+        this.changeConsumer = changeConsumer;
+    }
+
+    @Override
+    protected File fileOf(TagTable.Row row) {
+        return new File(row.path());
+    }
+
+    @Override
+    protected void process(TagTable.Row row) throws Exception {
+        ID3Tag tag = lookup.apply(TagTable.resolve(null, row).toFile());
+        if (tag == null) {
+            notLoaded.incrementAndGet();
+            return;
+        }
+        capacity.acquire();
+        pending.add(new Match(tag, row));
+    }
+
+    @Override
+    protected void itemCompleted() {
+        if (!pending.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    protected void allCompleted() {
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<Change> batch = new ArrayList<>();
+        int taken = 0;
+        Match match;
+        while ((match = pending.poll()) != null) {
+            taken++;
+            Map<TagField, String> values = TagTable.changes(match.tag(), match.row());
+            if (values.isEmpty()) {
+                unchanged.incrementAndGet();
+            } else {
+                batch.add(new Change(match.tag(), values));
+            }
+        }
+        capacity.release(taken);
+        if (!batch.isEmpty()) {
+            changeConsumer.accept(batch);
+        }
+    }
+
+    public int getUnchangedCount() {
+        return unchanged.get();
+    }
+
+    /**
+     * Rows for files that are not loaded, which are skipped.
+     */
+    public int getNotLoadedCount() {
+        return notLoaded.get();
+    }
+}
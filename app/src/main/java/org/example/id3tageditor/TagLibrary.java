@@ -0,0 +1,109 @@
+package org.example.id3tageditor;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The loaded tags behind the table, indexed by canonical file path so duplicate checks and
+ * lookups are O(1). All mutations must happen on the FX thread; {@link #contains} and
+ * {@link #get} may be called from any thread.
+ */
+public class TagLibrary {
+
+    private final ObservableList<ID3Tag> tags = FXCollections.observableArrayList();
+    private final ObservableList<ID3Tag> readOnlyTags = FXCollections.unmodifiableObservableList(tags);
+    private final Map<String, ID3Tag> byPath = new ConcurrentHashMap<>();
+    private final Map<ID3Tag, String> keys = new IdentityHashMap<>();
+
+    public static String keyOf(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.toPath().toAbsolutePath().normalize().toString();
+        }
+    }
+
+    public ObservableList<ID3Tag> getTags() {
+        return readOnlyTags;
+    }
+
+    public int size() {
+        return tags.size();
+    }
+
+    public boolean isEmpty() {
+        return tags.isEmpty();
+    }
+
+    public boolean contains(File file) {
+        return byPath.containsKey(keyOf(file));
+    }
+
+    public ID3Tag get(File file) {
+        return byPath.get(keyOf(file));
+    }
+
+    /**
+     * Adds every tag whose file is not already loaded, firing a single list change.
+     * Returns the tags that were actually added.
+     */
+    public List<ID3Tag> addAll(Collection<ID3Tag> newTags) {
+        List<ID3Tag> added = new ArrayList<>(newTags.size());
+        for (ID3Tag tag : newTags) {
+            String key = keyOf(new File(tag.getFilePath()));
+            if (byPath.putIfAbsent(key, tag) == null) {
+                keys.put(tag, key);
+                added.add(tag);
+            }
+        }
+        if (!added.isEmpty()) {
+            tags.addAll(added);
+        }
+        return added;
+    }
+
+    /**
+     * Removes the given tags, firing a single list change.
+     */
+    public void removeAll(Collection<ID3Tag> toRemove) {
+        Set<ID3Tag> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ID3Tag tag : toRemove) {
+            String key = keys.remove(tag);
+            if (key != null) {
+                byPath.remove(key, tag);
+                removed.add(tag);
+            }
+        }
+        if (!removed.isEmpty()) {
+            tags.removeAll(removed);
+        }
+    }
+
+    /**
+     * Points a loaded tag at its file's new location after it has been moved on disk.
+     */
+    public void rename(ID3Tag tag, Path target) {
+        String oldKey = keys.get(tag);
+        if (oldKey == null) {
+            tag.setFilePath(target.toString());
+            return;
+        }
+        String newKey = keyOf(target.toFile());
+        byPath.remove(oldKey, tag);
+        byPath.put(newKey, tag);
+        keys.put(tag, newKey);
+        tag.setFilePath(target.toString());
+    }
+}
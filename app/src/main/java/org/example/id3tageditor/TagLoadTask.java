@@ -0,0 +1,81 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Reads tags for a list of files, or for files as a scan finds them, in parallel. Finished rows
+ * are handed to {@code batchConsumer} on the FX thread in batches, so the table fills
+ * progressively instead of once per file.
+ */
+public class TagLoadTask extends ParallelFileTask<File> {
+
+    private final ID3TagService tagService;
+    private final Consumer<List<ID3Tag>> batchConsumer;
+
+    private final Queue<ID3Tag> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public TagLoadTask(ID3TagService tagService, List<File> files, int parallelism, Consumer<List<ID3Tag>> batchConsumer) {
+        super(files, parallelism, "Loading");
+        this.tagService = tagService;
+        this.batchConsumer = batchConsumer;
+    }
+
+    TagLoadTask(ID3TagService tagService, Source<File> files, int parallelism, Consumer<List<ID3Tag>> batchConsumer) {
+        super(files, parallelism, "Loading");
+        this.tagService = tagService;
+        this.batchConsumer = batchConsumer;
+    }
+
+    public static int defaultParallelism() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    protected File fileOf(File file) {
+        return file;
+    }
+
+    @Override
+    protected void process(File file) throws Exception {
+        pending.add(tagService.readListing(file));
+    }
+
+    @Override
+    protected void itemCompleted() {
+        scheduleFlush();
+    }
+
+    @Override
+    protected void allCompleted() {
+        TagMetrics.global().loadCompleted(completedCount(), elapsedNanos());
+        scheduleFlush();
+        tagService.saveCache();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<ID3Tag> batch = new ArrayList<>();
+        ID3Tag tag;
+        while ((tag = pending.poll()) != null) {
+            batch.add(tag);
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+}
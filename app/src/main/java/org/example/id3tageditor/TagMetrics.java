@@ -0,0 +1,265 @@
+package org.example.id3tageditor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for the tag read and save paths: a latency histogram per operation,
+ * bytes read and written, files per second of the last load and save, and tag and artwork
+ * cache hit rates. Recording is a few lock-free adds, so it stays on in production; read the
+ * numbers with {@link #snapshot()} or over JMX.
+ * <p>
+ * Bytes read count what the editor reads itself (the fast tag reader and embedded artwork);
+ * full reads through jaudiotagger show up in the latencies only.
+ */
+public final class TagMetrics implements TagMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.example.id3tageditor:type=TagMetrics";
+
+    public enum Operation {
+        /** Full read of tag and audio header through jaudiotagger. */
+        READ_TAGS,
+        /** Fast read of just the tag region, for the file table. */
+        READ_LISTING,
+        /** Scan of the audio stream for duration and bitrate. */
+        READ_AUDIO_HEADER,
+        /** Extraction of embedded cover art bytes. */
+        READ_ARTWORK,
+        /** Decoding and downsampling cover art for display. */
+        DECODE_ARTWORK,
+        /** A whole save: reading the file, applying the edits and writing. */
+        SAVE_TAGS,
+        /** The disk write part of a save. */
+        WRITE_TAGS,
+        /** Hashing a file's audio stream to find duplicates. */
+        HASH_AUDIO
+    }
+
+    /** Times are in milliseconds; percentiles are accurate to within a factor of two. */
+    public record OperationStats(long count, double meanMillis, double p50Millis, double p95Millis,
+                                 double p99Millis, double maxMillis) {
+    }
+
+    public record Snapshot(Map<Operation, OperationStats> operations, long filesRead, long filesSaved,
+                           long bytesRead, long bytesWritten, double lastLoadFilesPerSecond,
+                           double lastSaveFilesPerSecond, double tagCacheHitRate, double artworkCacheHitRate) {
+    }
+
+    private static final TagMetrics GLOBAL = new TagMetrics();
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder filesRead = new LongAdder();
+    private final LongAdder filesSaved = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder tagCacheHits = new LongAdder();
+    private final LongAdder tagCacheMisses = new LongAdder();
+    private final LongAdder artworkCacheHits = new LongAdder();
+    private final LongAdder artworkCacheMisses = new LongAdder();
+    private volatile double lastLoadFilesPerSecond;
+    private volatile double lastSaveFilesPerSecond;
+
+    private TagMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public static TagMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Makes the metrics available over JMX. Failures are reported and otherwise ignored.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(GLOBAL, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records one operation that started at {@code startNanos}, a {@link System#nanoTime()}.
+     */
+    public void record(Operation operation, long startNanos) {
+        latencies.get(operation).record(System.nanoTime() - startNanos);
+    }
+
+    public void fileRead() {
+        filesRead.increment();
+    }
+
+    public void fileSaved(long bytes) {
+        filesSaved.increment();
+        bytesWritten.add(bytes);
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public void tagCacheLookup(boolean hit) {
+        (hit ? tagCacheHits : tagCacheMisses).increment();
+    }
+
+    public void artworkCacheLookup(boolean hit) {
+        (hit ? artworkCacheHits : artworkCacheMisses).increment();
+    }
+
+    /**
+     * Records the throughput of a finished load of {@code files} files that took {@code nanos}.
+     */
+    public void loadCompleted(int files, long nanos) {
+        lastLoadFilesPerSecond = rate(files, nanos);
+    }
+
+    public void saveCompleted(int files, long nanos) {
+        lastSaveFilesPerSecond = rate(files, nanos);
+    }
+
+    private static double rate(int files, long nanos) {
+        return nanos > 0 ? files * 1e9 / nanos : 0;
+    }
+
+    public Snapshot snapshot() {
+        Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        latencies.forEach((operation, histogram) -> operations.put(operation, histogram.stats()));
+        return new Snapshot(operations, filesRead.sum(), filesSaved.sum(), bytesRead.sum(), bytesWritten.sum(),
+                lastLoadFilesPerSecond, lastSaveFilesPerSecond, getTagCacheHitRate(), getArtworkCacheHitRate());
+    }
+
+    @Override
+    public Map<String, OperationStats> getOperations() {
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        latencies.forEach((operation, histogram) -> operations.put(operation.name(), histogram.stats()));
+        return operations;
+    }
+
+    @Override
+    public long getFilesRead() {
+        return filesRead.sum();
+    }
+
+    @Override
+    public long getFilesSaved() {
+        return filesSaved.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public double getLastLoadFilesPerSecond() {
+        return lastLoadFilesPerSecond;
+    }
+
+    @Override
+    public double getLastSaveFilesPerSecond() {
+        return lastSaveFilesPerSecond;
+    }
+
+    @Override
+    public double getTagCacheHitRate() {
+        return hitRate(tagCacheHits.sum(), tagCacheMisses.sum());
+    }
+
+    @Override
+    public double getArtworkCacheHitRate() {
+        return hitRate(artworkCacheHits.sum(), artworkCacheMisses.sum());
+    }
+
+    private static double hitRate(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        for (LongAdder adder : new LongAdder[]{filesRead, filesSaved, bytesRead, bytesWritten,
+                tagCacheHits, tagCacheMisses, artworkCacheHits, artworkCacheMisses}) {
+            adder.reset();
+        }
+        lastLoadFilesPerSecond = 0;
+        lastSaveFilesPerSecond = 0;
+    }
+
+    /**
+     * Counts latencies in power-of-two microsecond buckets, from under 1 µs to over a minute.
+     */
+    private static final class LatencyHistogram {
+
+        private static final int BUCKETS = 28;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos) / 1000;
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            counts.incrementAndGet(bucket);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+
+        OperationStats stats() {
+            long[] snapshot = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            double max = maxNanos.get() / 1e6;
+            if (count == 0) {
+                return new OperationStats(0, 0, 0, 0, 0, 0);
+            }
+            return new OperationStats(count, totalNanos.sum() / 1e6 / count,
+                    Math.min(max, percentile(snapshot, count, 0.50)),
+                    Math.min(max, percentile(snapshot, count, 0.95)),
+                    Math.min(max, percentile(snapshot, count, 0.99)), max);
+        }
+
+        /** Upper bound, in milliseconds, of the bucket holding the given quantile. */
+        private static double percentile(long[] buckets, long count, double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return (1L << i) / 1000.0;
+                }
+            }
+            return (1L << (buckets.length - 1)) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.id3tageditor;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link TagMetrics}, registered as {@value TagMetrics#OBJECT_NAME}.
+ */
+public interface TagMetricsMXBean {
+
+    /**
+     * Latency statistics per operation, keyed by {@link TagMetrics.Operation} name.
+     */
+    Map<String, TagMetrics.OperationStats> getOperations();
+
+    long getFilesRead();
+
+    long getFilesSaved();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    double getLastLoadFilesPerSecond();
+
+    double getLastSaveFilesPerSecond();
+
+    double getTagCacheHitRate();
+
+    double getArtworkCacheHitRate();
+
+    void reset();
+}
@@ -0,0 +1,129 @@
+package org.example.id3tageditor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A batch edit: field assignments applied to every tag that matches all of the rule's
+ * conditions. Rules are written one per line as {@code conditions => assignments}, each side a
+ * {@code ;}-separated list, for example {@code artist=Various; year= => genre=Soundtrack}.
+ * Conditions are {@code field=value} (equal, ignoring case), {@code field!=value} and
+ * {@code field~text} (contains, ignoring case); a missing value counts as empty. Fields are
+ * named as in {@link TagField}, e.g. {@code trackTotal}.
+ */
+public record TagRule(List<Condition> conditions, Map<TagField, String> assignments) {
+
+    public enum Operator { EQUALS, NOT_EQUALS, CONTAINS }
+
+    public record Condition(TagField field, Operator operator, String value) {
+
+        public boolean matches(ID3Tag tag) {
+            String actual = tag.get(field);
+            if (actual == null) {
+                actual = "";
+            }
+            return switch (operator) {
+                case EQUALS -> actual.equalsIgnoreCase(value);
+                case NOT_EQUALS -> !actual.equalsIgnoreCase(value);
+                case CONTAINS -> actual.toLowerCase(Locale.ROOT).contains(value.toLowerCase(Locale.ROOT));
+            };
+        }
+    }
+
+    public TagRule {
+        conditions = List.copyOf(conditions);
+        assignments = assignments.isEmpty() ? Map.of() : new EnumMap<>(assignments);
+    }
+
+    public boolean matches(ID3Tag tag) {
+        for (Condition condition : conditions) {
+            if (!condition.matches(tag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the assignments to a matching tag. Returns whether any value actually changed.
+     */
+    public boolean apply(ID3Tag tag) {
+        boolean changed = false;
+        for (Map.Entry<TagField, String> assignment : assignments.entrySet()) {
+            String before = tag.get(assignment.getKey());
+            String value = assignment.getValue();
+            if (!value.equals(before) && !(value.isEmpty() && before == null)) {
+                tag.set(assignment.getKey(), value);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public static TagRule parse(String line) {
+        int arrow = line.indexOf("=>");
+        if (arrow < 0) {
+            throw new IllegalArgumentException("Expected 'conditions => assignments': " + line);
+        }
+        return new TagRule(parseConditions(line.substring(0, arrow)), parseAssignments(line.substring(arrow + 2)));
+    }
+
+    public static List<Condition> parseConditions(String text) {
+        List<Condition> conditions = new ArrayList<>();
+        for (String part : split(text)) {
+            conditions.add(parseCondition(part));
+        }
+        return conditions;
+    }
+
+    public static Condition parseCondition(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '=') {
+                return new Condition(field(text.substring(0, i)), Operator.EQUALS, text.substring(i + 1).trim());
+            }
+            if (c == '~') {
+                return new Condition(field(text.substring(0, i)), Operator.CONTAINS, text.substring(i + 1).trim());
+            }
+            if (c == '!' && text.startsWith("=", i + 1)) {
+                return new Condition(field(text.substring(0, i)), Operator.NOT_EQUALS, text.substring(i + 2).trim());
+            }
+        }
+        throw new IllegalArgumentException("Expected field=value, field!=value or field~text: " + text);
+    }
+
+    public static Map<TagField, String> parseAssignments(String text) {
+        Map<TagField, String> assignments = new EnumMap<>(TagField.class);
+        for (String part : split(text)) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected field=value: " + part);
+            }
+            assignments.put(field(part.substring(0, equals)), part.substring(equals + 1).trim());
+        }
+        return assignments;
+    }
+
+    public static TagField field(String name) {
+        String trimmed = name.trim();
+        for (TagField field : TagField.values()) {
+            if (field.getPropertyName().equalsIgnoreCase(trimmed) || field.name().equalsIgnoreCase(trimmed)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + trimmed);
+    }
+
+    private static List<String> split(String text) {
+        List<String> parts = new ArrayList<>();
+        for (String part : text.split(";")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes tags back to their own files in parallel, off the FX thread. Each file is written from
+ * a snapshot taken when the task is created, so the tags can go on being edited meanwhile;
+ * {@link #applySaved()} then marks what was written as clean. A task made with
+ * {@link #copy} instead writes one file with its tag to another path, as Save As does.
+ */
+public class TagSaveTask extends ParallelFileTask<TagSaveTask.Pending> {
+
+    /**
+     * A tag to be saved, the snapshot it is written from and the dirty flags the snapshot had.
+     */
+    record Pending(ID3Tag tag, ID3Tag snapshot, int state) {
+    }
+
+    private final ID3TagService tagService;
+    private final File copyTarget;
+    private final AtomicInteger savedCount = new AtomicInteger();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final Queue<Pending> saved = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Takes the snapshots, so call it on the FX thread.
+     */
+    public TagSaveTask(ID3TagService tagService, List<ID3Tag> tags, int parallelism) {
+        this(tagService, tags, parallelism, null);
+    }
+
+    private TagSaveTask(ID3TagService tagService, List<ID3Tag> tags, int parallelism, File copyTarget) {
+        super(tags.stream().map(TagSaveTask::pending).toList(), parallelism, copyTarget != null ? "Copying" : "Saving");
+        this.tagService = tagService;
+        this.copyTarget = copyTarget;
+    }
+
+    /**
+     * A task that writes a copy of the tag's file, with its edits, to {@code target}. The tag
+     * and its own file are left as they are. Takes the snapshot, so call it on the FX thread.
+     */
+    public static TagSaveTask copy(ID3TagService tagService, ID3Tag tag, File target) {
+        return new TagSaveTask(tagService, List.of(tag), 1, target);
+    }
+
+    private static Pending pending(ID3Tag tag) {
+        ID3Tag snapshot = tag.snapshot();
+        return new Pending(tag, snapshot, snapshot.dirtyState());
+    }
+
+    @Override
+    protected File fileOf(Pending pending) {
+        return new File(pending.snapshot().getFilePath());
+    }
+
+    @Override
+    protected void process(Pending pending) throws Exception {
+        bytesWritten.add(tagService.saveTags(pending.snapshot(), copyTarget != null ? copyTarget : fileOf(pending)));
+        if (copyTarget == null) {
+            saved.add(pending);
+        }
+        savedCount.incrementAndGet();
+    }
+
+    @Override
+    protected void allCompleted() {
+        TagMetrics.global().saveCompleted(completedCount(), elapsedNanos());
+        tagService.saveCache();
+    }
+
+    /**
+     * Marks the fields written so far as clean on the tags, leaving those edited since dirty.
+     * Call on the FX thread once the task has ended.
+     */
+    public void applySaved() {
+        Pending pending;
+        while ((pending = saved.poll()) != null) {
+            pending.tag().markSaved(pending.snapshot(), pending.state());
+        }
+    }
+
+    public int getSavedCount() {
+        return savedCount.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+}
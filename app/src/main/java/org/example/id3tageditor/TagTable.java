@@ -0,0 +1,69 @@
+package org.example.id3tageditor;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The flat table that tags are exported to and imported from for editing in other tools: one
+ * row per file, a {@code path} column and one column per {@link TagField}, named by its
+ * property name. Rows are written and read one at a time by {@link TagTableWriter} and
+ * {@link TagTableReader}, so a table of any size is handled in constant memory.
+ * <p>
+ * An imported row only touches the fields it has a column for, and an empty value clears a
+ * field, so a table can be cut down to the columns that are being edited.
+ */
+public final class TagTable {
+
+    public static final String PATH_COLUMN = "path";
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * The format named by a file's extension; anything but {@code .json} is read as CSV.
+         */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    /**
+     * One imported row: the file it is for, as written in the table, and the values of the
+     * fields it has columns for. {@code number} is the line or record number, for messages.
+     */
+    public record Row(long number, String path, Map<TagField, String> values) {
+    }
+
+    private TagTable() {
+    }
+
+    /**
+     * The values of {@code row} that differ from {@code tag}, treating empty and missing values
+     * as the same. Empty values are returned as {@code null}.
+     */
+    public static Map<TagField, String> changes(ID3Tag tag, Row row) {
+        Map<TagField, String> changes = new EnumMap<>(TagField.class);
+        row.values().forEach((field, value) -> {
+            String wanted = emptyToNull(value);
+            if (!Objects.equals(emptyToNull(tag.get(field)), wanted)) {
+                changes.put(field, wanted);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Resolves the path of a row against {@code base} when it is relative.
+     */
+    public static Path resolve(Path base, Row row) {
+        Path path = Path.of(row.path());
+        return base != null ? base.resolve(path).normalize() : path.toAbsolutePath().normalize();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,338 @@
+package org.example.id3tageditor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a {@link TagTable} file one row at a time. Columns other than {@code path} must name a
+ * {@link TagField}, so a misspelt column is reported instead of being silently ignored. Not
+ * thread-safe.
+ */
+public abstract class TagTableReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    // Read one char at a time from a private buffer, rather than through synchronized reads.
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private TagTableReader(Reader in) {
+        this.in = in;
+    }
+
+    public static TagTableReader open(Path file, TagTable.Format format) throws IOException {
+        Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        TagTableReader reader = format == TagTable.Format.JSON ? new Json(in) : new Csv(in);
+        // A byte order mark, as left by some spreadsheet programs, is not part of the data.
+        if (reader.read() != '\uFEFF') {
+            reader.unread();
+        }
+        return reader;
+    }
+
+    /**
+     * The next row, or {@code null} at the end of the file.
+     */
+    public abstract TagTable.Row next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    protected int read() throws IOException {
+        if (position == limit) {
+            int count = in.read(buffer, 0, BUFFER_SIZE);
+            if (count <= 0) {
+                // Keeps unread() after the end of the input a no-op.
+                position = limit = 0;
+                return -1;
+            }
+            position = 0;
+            limit = count;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Steps back over the char just returned by {@link #read()}, if it was not the end.
+     */
+    protected void unread() {
+        if (position > 0) {
+            position--;
+        }
+    }
+
+    protected static TagField column(String name, String where) throws IOException {
+        try {
+            return TagRule.field(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(where + ": unknown column '" + name + "'");
+        }
+    }
+
+    private static final class Csv extends TagTableReader {
+
+        private final StringBuilder cell = new StringBuilder();
+        private final List<String> cells = new ArrayList<>();
+        // Field per column, null for the path column.
+        private TagField[] columns;
+        private int pathColumn = -1;
+        private long line = 1;
+        private long recordLine;
+
+        Csv(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public TagTable.Row next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            while (readRecord()) {
+                if (cells.size() == 1 && cells.get(0).isEmpty()) {
+                    continue;
+                }
+                if (cells.size() > columns.length) {
+                    throw new IOException("Line " + recordLine + ": " + cells.size() + " values for " + columns.length + " columns");
+                }
+                if (cells.size() <= pathColumn || cells.get(pathColumn).isEmpty()) {
+                    throw new IOException("Line " + recordLine + ": no path");
+                }
+                Map<TagField, String> values = new EnumMap<>(TagField.class);
+                for (int i = 0; i < cells.size(); i++) {
+                    if (columns[i] != null) {
+                        values.put(columns[i], cells.get(i));
+                    }
+                }
+                return new TagTable.Row(recordLine, cells.get(pathColumn), values);
+            }
+            return null;
+        }
+
+        private void readHeader() throws IOException {
+            if (!readRecord()) {
+                throw new IOException("The file is empty");
+            }
+            columns = new TagField[cells.size()];
+            for (int i = 0; i < cells.size(); i++) {
+                String name = cells.get(i).strip();
+                if (name.equalsIgnoreCase(TagTable.PATH_COLUMN)) {
+                    pathColumn = i;
+                } else {
+                    columns[i] = column(name, "Line 1");
+                }
+            }
+            if (pathColumn < 0) {
+                throw new IOException("Line 1: no '" + TagTable.PATH_COLUMN + "' column");
+            }
+        }
+
+        /**
+         * Reads one record into {@link #cells}; quoted values may span lines.
+         */
+        private boolean readRecord() throws IOException {
+            cells.clear();
+            cell.setLength(0);
+            recordLine = line;
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IOException("Line " + recordLine + ": unterminated quoted value");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    cell.append((char) c);
+                } else if (c == '"' && cell.isEmpty() && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\n' || c == '\r' || c < 0) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            unread();
+                        }
+                    }
+                    line++;
+                    cells.add(cell.toString());
+                    return true;
+                } else {
+                    cell.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON array of flat objects, or objects one after another as in JSON Lines. Values
+     * must be strings, numbers or {@code null}.
+     */
+    private static final class Json extends TagTableReader {
+
+        private final StringBuilder text = new StringBuilder();
+        private boolean started;
+        private boolean array;
+        private long records;
+
+        Json(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public TagTable.Row next() throws IOException {
+            int c = skipWhitespace();
+            if (!started) {
+                started = true;
+                if (c == '[') {
+                    array = true;
+                    c = skipWhitespace();
+                }
+            }
+            if (array) {
+                if (c == ']') {
+                    return null;
+                }
+                if (records > 0) {
+                    expect(c, ',');
+                    c = skipWhitespace();
+                }
+            } else if (c < 0) {
+                return null;
+            }
+            expect(c, '{');
+            long number = ++records;
+
+            String path = null;
+            Map<TagField, String> values = new EnumMap<>(TagField.class);
+            c = skipWhitespace();
+            if (c != '}') {
+                while (true) {
+                    expect(c, '"');
+                    String name = string();
+                    expect(skipWhitespace(), ':');
+                    String value = value(number);
+                    if (name.equalsIgnoreCase(TagTable.PATH_COLUMN)) {
+                        path = value;
+                    } else {
+                        values.put(column(name, "Record " + number), value);
+                    }
+                    c = skipWhitespace();
+                    if (c == '}') {
+                        break;
+                    }
+                    expect(c, ',');
+                    c = skipWhitespace();
+                }
+            }
+            if (path == null || path.isEmpty()) {
+                throw new IOException("Record " + number + ": no path");
+            }
+            return new TagTable.Row(number, path, values);
+        }
+
+        private String value(long number) throws IOException {
+            int c = skipWhitespace();
+            if (c == '"') {
+                return string();
+            }
+            text.setLength(0);
+            while (c >= 0 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                text.append((char) c);
+                c = read();
+            }
+            unread();
+            String literal = text.toString();
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (!literal.isEmpty() && (literal.charAt(0) == '-' || Character.isDigit(literal.charAt(0)))) {
+                return literal;
+            }
+            throw new IOException("Record " + number + ": values must be strings, numbers or null, not '"
+                    + (literal.isEmpty() ? String.valueOf((char) c) : literal) + "'");
+        }
+
+        private String string() throws IOException {
+            text.setLength(0);
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    throw new IOException("Record " + records + ": unterminated string");
+                }
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append((char) c);
+                    continue;
+                }
+                c = read();
+                switch (c) {
+                    case 'n' -> text.append('\n');
+                    case 'r' -> text.append('\r');
+                    case 't' -> text.append('\t');
+                    case 'b' -> text.append('\b');
+                    case 'f' -> text.append('\f');
+                    case 'u' -> {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) read();
+                        }
+                        try {
+                            text.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Record " + records + ": invalid escape \\u" + new String(hex));
+                        }
+                    }
+                    case '"', '\\', '/' -> text.append((char) c);
+                    default -> throw new IOException("Record " + records + ": invalid escape in string");
+                }
+            }
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = read();
+            while (c >= 0 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            return c;
+        }
+
+        private void expect(int c, char expected) throws IOException {
+            if (c != expected) {
+                throw new IOException("Record " + Math.max(1, records) + ": expected '" + expected + "' but found "
+                        + (c < 0 ? "the end of the file" : "'" + (char) c + "'"));
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.id3tageditor;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes tags to a {@link TagTable} file row by row. Rows may be written from several threads;
+ * each is written whole.
+ */
+public abstract class TagTableWriter implements Closeable {
+
+    protected static final TagField[] FIELDS = TagField.values();
+
+    protected final Writer out;
+    private long rows;
+
+    private TagTableWriter(Writer out) {
+        this.out = out;
+    }
+
+    public static TagTableWriter open(Path file, TagTable.Format format) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        try {
+            TagTableWriter writer = format == TagTable.Format.JSON ? new Json(out) : new Csv(out);
+            writer.begin();
+            return writer;
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    public synchronized void write(ID3Tag tag) throws IOException {
+        writeRow(tag, rows);
+        rows++;
+    }
+
+    /**
+     * Rows written so far; a row whose write failed is not counted.
+     */
+    public synchronized long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            end();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected abstract void begin() throws IOException;
+
+    protected abstract void writeRow(ID3Tag tag, long index) throws IOException;
+
+    protected abstract void end() throws IOException;
+
+    /**
+     * RFC 4180 CSV with a header row. Values are quoted only when they contain a separator,
+     * quote or line break, or start or end with a space.
+     */
+    private static final class Csv extends TagTableWriter {
+
+        Csv(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void begin() throws IOException {
+            out.write(TagTable.PATH_COLUMN);
+            for (TagField field : FIELDS) {
+                out.write(',');
+                out.write(field.getPropertyName());
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        protected void writeRow(ID3Tag tag, long index) throws IOException {
+            value(tag.getFilePath());
+            for (TagField field : FIELDS) {
+                out.write(',');
+                value(tag.get(field));
+            }
+            out.write("\r\n");
+        }
+
+        private void value(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean quote = value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+
+        @Override
+        protected void end() {
+        }
+    }
+
+    /**
+     * A JSON array of flat objects, one per line, with {@code null} for empty fields.
+     */
+    private static final class Json extends TagTableWriter {
+
+        Json(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void begin() throws IOException {
+            out.write("[\n");
+        }
+
+        @Override
+        protected void writeRow(ID3Tag tag, long index) throws IOException {
+            if (index > 0) {
+                out.write(",\n");
+            }
+            out.write('{');
+            member(TagTable.PATH_COLUMN, tag.getFilePath());
+            for (TagField field : FIELDS) {
+                out.write(',');
+                String value = tag.get(field);
+                member(field.getPropertyName(), value == null || value.isEmpty() ? null : value);
+            }
+            out.write('}');
+        }
+
+        private void member(String name, String value) throws IOException {
+            string(name);
+            out.write(':');
+            if (value == null) {
+                out.write("null");
+            } else {
+                string(value);
+            }
+        }
+
+        private void string(String value) throws IOException {
+            out.write('"');
+            // Runs of plain characters are written whole; only the characters between them are escaped.
+            int plain = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    continue;
+                }
+                out.write(value, plain, i - plain);
+                plain = i + 1;
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> out.write(String.format("\\u%04x", (int) c));
+                }
+            }
+            out.write(value, plain, value.length() - plain);
+            out.write('"');
+        }
+
+        @Override
+        protected void end() throws IOException {
+            out.write("\n]\n");
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless batch retagging. Streams every supported file below a folder through parallel
+ * read, match, modify and save steps, without starting the JavaFX toolkit:
+ * <pre>
+ * TuneLabelCli &lt;folder&gt; [--where field=value]... [--set field=value]... [--script file]
+ *              [--export table.csv|table.json] [--threads n] [--dry-run]
+ * TuneLabelCli [&lt;folder&gt;] --import table.csv|table.json [--threads n] [--dry-run]
+ * </pre>
+ * {@code --where} and {@code --set} form one rule; a script holds one {@link TagRule} per line.
+ * Every matching rule is applied in order and each file is saved at most once. Without any
+ * assignments the matching files are only listed, or written to a {@link TagTable} with
+ * {@code --export}. {@code --import} streams such a table back and saves the files whose rows
+ * differ from their tags; relative paths in it are resolved against the folder, if given.
+ */
+public final class TuneLabelCli {
+
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+
+    private final Path root;
+    private final List<TagRule> rules;
+    private final int threads;
+    private final boolean dryRun;
+    private final boolean queryOnly;
+    private final Path exportTable;
+    private final Path importTable;
+    private TagTableWriter exportWriter;
+
+    private final ID3TagService tagService = new ID3TagService();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final PrintStream out = System.out;
+    private final PrintStream err = System.err;
+
+    private TuneLabelCli(Path root, List<TagRule> rules, int threads, boolean dryRun, Path exportTable, Path importTable) {
+        this.root = root;
+        this.rules = rules;
+        this.threads = threads;
+        this.dryRun = dryRun;
+        this.queryOnly = rules.stream().allMatch(rule -> rule.assignments().isEmpty());
+        this.exportTable = exportTable;
+        this.importTable = importTable;
+    }
+
+    public static void main(String[] args) {
+        Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+        TagMetrics.registerMBean();
+        TuneLabelCli cli;
+        try {
+            cli = parse(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("tunelabel: " + e.getMessage());
+            System.err.println("usage: TuneLabelCli <folder> [--where field=value]... [--set field=value]... "
+                    + "[--script file] [--export table] [--threads n] [--dry-run]");
+            System.err.println("       TuneLabelCli [<folder>] --import table [--threads n] [--dry-run]");
+            System.exit(2);
+            return;
+        }
+        System.exit(cli.run() ? 0 : 1);
+    }
+
+    private static TuneLabelCli parse(String[] args) throws IOException {
+        Path root = null;
+        List<TagRule.Condition> conditions = new ArrayList<>();
+        List<String> assignments = new ArrayList<>();
+        List<TagRule> rules = new ArrayList<>();
+        int threads = EditorSettings.saveParallelism();
+        boolean dryRun = false;
+        Path exportTable = null;
+        Path importTable = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--where" -> conditions.add(TagRule.parseCondition(value(args, ++i, arg)));
+                case "--set" -> assignments.add(value(args, ++i, arg));
+                case "--script" -> rules.addAll(readScript(Path.of(value(args, ++i, arg))));
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i, arg));
+                case "--dry-run" -> dryRun = true;
+                case "--export" -> exportTable = Path.of(value(args, ++i, arg));
+                case "--import" -> importTable = Path.of(value(args, ++i, arg));
+                default -> {
+                    if (arg.startsWith("--") || root != null) {
+                        throw new IllegalArgumentException("Unexpected argument: " + arg);
+                    }
+                    root = Path.of(arg);
+                }
+            }
+        }
+        if (importTable != null) {
+            if (!conditions.isEmpty() || !assignments.isEmpty() || !rules.isEmpty() || exportTable != null) {
+                throw new IllegalArgumentException("--import cannot be combined with rules or --export");
+            }
+        } else if (root == null) {
+            throw new IllegalArgumentException("No folder given");
+        }
+        if (!conditions.isEmpty() || !assignments.isEmpty() || rules.isEmpty()) {
+            rules.add(0, new TagRule(conditions, TagRule.parseAssignments(String.join(";", assignments))));
+        }
+        if (exportTable != null && !assignments.isEmpty()) {
+            throw new IllegalArgumentException("--export only lists tags; it cannot be combined with --set");
+        }
+        return new TuneLabelCli(root, rules, Math.max(1, threads), dryRun, exportTable, importTable);
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+
+    private static List<TagRule> readScript(Path script) throws IOException {
+        List<TagRule> rules = new ArrayList<>();
+        List<String> lines = Files.readAllLines(script);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(TagRule.parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(script + ":" + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return rules;
+    }
+
+    private boolean run() {
+        long start = System.nanoTime();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cli-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> err.println(summary(start)),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        if (importTable != null) {
+            try {
+                importRows();
+            } finally {
+                progress.shutdownNow();
+            }
+            out.println(summary(start));
+            return failed.sum() == 0;
+        }
+
+        if (exportTable != null) {
+            try {
+                exportWriter = TagTableWriter.open(exportTable, TagTable.Format.of(exportTable));
+            } catch (IOException e) {
+                progress.shutdownNow();
+                report(FileError.of(exportTable.toFile(), e));
+                return false;
+            }
+        }
+
+        FolderScanner scanner = new FolderScanner(EditorSettings.scanDepth(), Runtime.getRuntime().availableProcessors());
+        Semaphore permits = new Semaphore(threads);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (Files.isRegularFile(root)) {
+                process(root.toFile());
+            } else {
+                scanner.scan(root, path -> {
+                    permits.acquireUninterruptibly();
+                    executor.submit(() -> {
+                        try {
+                            process(path.toFile());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                });
+            }
+        } catch (IOException e) {
+            report(FileError.of(root.toFile(), e));
+        } finally {
+            progress.shutdownNow();
+        }
+        if (exportWriter != null) {
+            try {
+                exportWriter.close();
+            } catch (IOException e) {
+                report(FileError.of(exportTable.toFile(), e));
+            }
+        }
+
+        for (FileError error : scanner.getErrors()) {
+            report(error);
+        }
+        out.println(summary(start));
+        return failed.sum() == 0;
+    }
+
+    private void process(File file) {
+        scanned.increment();
+        try {
+            ID3Tag tag = tagService.readListing(file);
+            boolean anyMatch = false;
+            boolean anyChange = false;
+            for (TagRule rule : rules) {
+                if (rule.matches(tag)) {
+                    anyMatch = true;
+                    anyChange |= rule.apply(tag);
+                }
+            }
+            if (!anyMatch) {
+                return;
+            }
+            matched.increment();
+            if (queryOnly) {
+                if (exportWriter != null) {
+                    exportWriter.write(tag);
+                } else {
+                    out.println(file.getPath());
+                }
+                return;
+            }
+            if (!anyChange) {
+                return;
+            }
+            changed.increment();
+            if (dryRun) {
+                out.println("would change " + file.getPath() + ": " + tag.getDirtyFields());
+            } else {
+                bytesWritten.add(tagService.saveTags(tag, file));
+            }
+        } catch (Exception e) {
+            report(FileError.of(file, e));
+        }
+    }
+
+    /**
+     * Streams the rows of the import table to parallel workers, with at most {@code threads}
+     * rows in flight.
+     */
+    private void importRows() {
+        Semaphore permits = new Semaphore(threads);
+        try (TagTableReader reader = TagTableReader.open(importTable, TagTable.Format.of(importTable));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            TagTable.Row row;
+            while ((row = reader.next()) != null) {
+                TagTable.Row current = row;
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        importRow(current);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            report(FileError.of(importTable.toFile(), e));
+        }
+    }
+
+    private void importRow(TagTable.Row row) {
+        scanned.increment();
+        File file = TagTable.resolve(root, row).toFile();
+        try {
+            ID3Tag tag = tagService.readListing(file);
+            matched.increment();
+            Map<TagField, String> values = TagTable.changes(tag, row);
+            if (values.isEmpty()) {
+                return;
+            }
+            changed.increment();
+            values.forEach(tag::set);
+            if (dryRun) {
+                out.println("would change " + file.getPath() + ": " + values.keySet());
+            } else {
+                bytesWritten.add(tagService.saveTags(tag, file));
+            }
+        } catch (Exception e) {
+            report(FileError.of(file, e));
+        }
+    }
+
+    private void report(FileError error) {
+        failed.increment();
+        err.println("error: " + error.file().getPath() + ": " + error.message());
+    }
+
+    private String summary(long start) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+        long files = scanned.sum();
+        return String.format(Locale.ROOT,
+                "%d files in %.1f s (%.0f files/s): %d matched, %d %s, %d errors, %.2f MiB written",
+                files, seconds, files / seconds, matched.sum(), changed.sum(), dryRun ? "would change" : "changed",
+                failed.sum(), bytesWritten.sum() / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,326 @@
+package org.example.id3tageditor;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Saves edited tags in the background once they have been left alone for a moment. Each file is
+ * queued once however often it is edited, and is written when it has had no edits for the delay
+ * (or has waited too long under a steady stream of edits), so a burst of changes to one file
+ * becomes a single write of all of them.
+ * <p>
+ * A writer thread saves due files in batches, with at most {@code parallelism} writes in flight.
+ * A file is written from a snapshot of its tag taken on the FX thread when it was last queued,
+ * so the writer never reads a tag that is being edited; fields edited while the file was being
+ * written stay dirty and are written next time. Queue a tag again whenever it changes, including
+ * its path. When the queue grows
+ * past a high-water mark the delay is skipped until it has caught up. Methods other than
+ * {@link #awaitIdle()} must be called on the FX thread; results are delivered there too.
+ */
+public class WriteBehindQueue {
+
+    private static final long MAX_DELAY_MILLIS = 10_000;
+    private static final int HIGH_WATER_MARK = 1000;
+
+    /**
+     * One written batch: how many files were saved, those that could not be, and how many are
+     * still queued.
+     */
+    public record Result(int saved, List<FileError> errors, int pending) {
+    }
+
+    private static final class Queued {
+        final long first;
+        long last;
+        boolean now;
+        // Flushed before the queue was paused, so written before the pause takes effect.
+        boolean beforePause;
+        ID3Tag snapshot;
+        int state;
+
+        Queued(long time) {
+            first = last = time;
+        }
+
+        long due(long delay) {
+            return now ? 0 : Math.min(last + delay, first + Math.max(delay, MAX_DELAY_MILLIS));
+        }
+    }
+
+    private record Write(ID3Tag tag, ID3Tag snapshot, int state) {
+    }
+
+    private final ID3TagService tagService;
+    private final int parallelism;
+    private final long delayMillis;
+    private final Consumer<Result> onWritten;
+    private final Thread thread;
+    private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<ID3Tag, Queued> pending = new LinkedHashMap<>();
+    private int pauses;
+    private boolean writing;
+    private boolean closed;
+    private boolean drained;
+
+    public WriteBehindQueue(ID3TagService tagService, int parallelism, long delayMillis, Consumer<Result> onWritten) {
+        this.tagService = tagService;
+        this.parallelism = Math.max(1, parallelism);
+        this.delayMillis = Math.max(0, delayMillis);
+        this.onWritten = onWritten;
+        this.thread = new Thread(this::run, "tag-writer");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Queues the dirty ones among {@code tags} to be written after the delay, or restarts the
+     * delay of those already queued. Queued tags that are no longer dirty, because their edits
+     * were undone, are dropped.
+     */
+    public void enqueue(Collection<ID3Tag> tags) {
+        add(tags, false);
+    }
+
+    /**
+     * Queues the dirty ones among {@code tags} to be written as soon as possible.
+     */
+    public void flush(Collection<ID3Tag> tags) {
+        add(tags, true);
+    }
+
+    private void add(Collection<ID3Tag> tags, boolean now) {
+        long time = System.currentTimeMillis();
+        lock.lock();
+        try {
+            for (ID3Tag tag : tags) {
+                if (!tag.isDirty()) {
+                    pending.remove(tag);
+                    continue;
+                }
+                Queued queued = pending.computeIfAbsent(tag, key -> new Queued(time));
+                queued.last = time;
+                queued.now |= now;
+                queued.snapshot = tag.snapshot();
+                queued.state = queued.snapshot.dirtyState();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds back further writes, for instance while a task moves or reads files, until
+     * {@link #resume()} is called. A batch already being written is finished, and so are the
+     * files {@link #flush flushed} before the pause; see {@link #awaitIdle()}.
+     */
+    public void pause() {
+        lock.lock();
+        try {
+            pauses++;
+            for (Queued queued : pending.values()) {
+                queued.beforePause |= queued.now;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume() {
+        lock.lock();
+        try {
+            pauses = Math.max(0, pauses - 1);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until no batch is being written and, while paused, until the files flushed before
+     * the pause have been written. Once the queue has been closed, waits until everything queued
+     * has been written. Blocks, so call it off the FX thread.
+     */
+    public void awaitIdle() throws InterruptedException {
+        lock.lock();
+        try {
+            while (writing || closed && !drained || pauses > 0 && !closed && hasFlushedBeforePause()) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything still queued, without waiting for the delay or any pause, and stops the
+     * writer. Does not wait: the returned future completes on the writer thread once the last
+     * file has been written, after the results of every batch have been posted to the FX thread.
+     * Calling it again returns the same future.
+     */
+    public CompletableFuture<Void> close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return stopped;
+    }
+
+    private boolean hasFlushedBeforePause() {
+        for (Queued queued : pending.values()) {
+            if (queued.beforePause) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        try {
+            List<Write> batch;
+            while ((batch = nextBatch()) != null) {
+                write(batch);
+            }
+        } catch (InterruptedException e) {
+            // Stopped.
+        } finally {
+            lock.lock();
+            try {
+                drained = true;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            stopped.complete(null);
+        }
+    }
+
+    private List<Write> nextBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed && pending.isEmpty()) {
+                    return null;
+                }
+                long wait = Long.MAX_VALUE;
+                // While paused, only files flushed before the pause are written.
+                boolean paused = pauses > 0 && !closed;
+                long now = System.currentTimeMillis();
+                boolean urgent = closed || pending.size() >= HIGH_WATER_MARK;
+                List<Write> batch = new ArrayList<>();
+                Iterator<Map.Entry<ID3Tag, Queued>> entries = pending.entrySet().iterator();
+                while (entries.hasNext() && batch.size() < parallelism * 8) {
+                    Map.Entry<ID3Tag, Queued> entry = entries.next();
+                    if (paused && !entry.getValue().beforePause) {
+                        continue;
+                    }
+                    long due = urgent ? now : entry.getValue().due(delayMillis);
+                    if (due <= now) {
+                        batch.add(new Write(entry.getKey(), entry.getValue().snapshot, entry.getValue().state));
+                        entries.remove();
+                    } else {
+                        wait = Math.min(wait, due - now);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    writing = true;
+                    return batch;
+                }
+                if (wait == Long.MAX_VALUE) {
+                    changed.await();
+                } else {
+                    changed.await(wait, TimeUnit.MILLISECONDS);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(List<Write> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        Queue<FileError> errors = new ConcurrentLinkedQueue<>();
+        boolean[] saved = new boolean[batch.size()];
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < batch.size(); i++) {
+                int index = i;
+                ID3Tag snapshot = batch.get(i).snapshot();
+                permits.acquire();
+                executor.submit(() -> {
+                    File file = new File(snapshot.getFilePath());
+                    try {
+                        tagService.saveTags(snapshot, file);
+                        saved[index] = true;
+                    } catch (Exception e) {
+                        errors.add(FileError.of(file, e));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        int savedCount = batch.size() - errors.size();
+        TagMetrics.global().saveCompleted(savedCount, System.nanoTime() - start);
+        int remaining;
+        lock.lock();
+        try {
+            remaining = pending.size();
+            writing = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (remaining == 0) {
+            tagService.saveCache();
+        }
+
+        Result result = new Result(savedCount, List.copyOf(errors), remaining);
+        Platform.runLater(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                if (saved[i]) {
+                    Write write = batch.get(i);
+                    write.tag().markSaved(write.snapshot(), write.state());
+                }
+            }
+            onWritten.accept(result);
+        });
+    }
+}
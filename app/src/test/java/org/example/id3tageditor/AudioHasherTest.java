@@ -0,0 +1,113 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AudioHasherTest {
+
+    private static final byte[] AUDIO = "frames of audio".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OTHER_AUDIO = "other audio".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ignoresMp3Tags() throws Exception {
+        File untagged = TestFiles.audio(directory.resolve("a.mp3"), 0);
+        File tagged = TestFiles.tagged(directory.resolve("b.mp3"), "Title", "Artist", 256);
+        File other = TestFiles.audio(directory.resolve("c.mp3"), 1);
+
+        assertEquals(AudioHasher.hash(untagged), AudioHasher.hash(tagged));
+        assertNotEquals(AudioHasher.hash(untagged), AudioHasher.hash(other));
+    }
+
+    @Test
+    void hashesFlacFramesAfterTheMetadataBlocks() throws IOException {
+        File plain = write("a.flac", flac(AUDIO, block(0, 34), block(4, 20)));
+        File retagged = write("b.flac", flac(AUDIO, block(0, 34), block(4, 300), block(1, 1000)));
+        File other = write("c.flac", flac(OTHER_AUDIO, block(0, 34), block(4, 20)));
+
+        assertEquals(AudioHasher.hash(plain), AudioHasher.hash(retagged));
+        assertNotEquals(AudioHasher.hash(plain), AudioHasher.hash(other));
+    }
+
+    @Test
+    void hashesMp4MediaDataOnly() throws IOException {
+        byte[] ftyp = box("ftyp", new byte[8]);
+        File plain = write("a.m4a", concat(ftyp, box("moov", new byte[40]), box("mdat", AUDIO)));
+        // Tags moved in front of the audio, grown, and a 64-bit sized mdat box.
+        File retagged = write("b.m4a", concat(ftyp, box("mdat", new byte[0]), box("moov", new byte[400]), largeBox("mdat", AUDIO)));
+        File other = write("c.m4a", concat(ftyp, box("moov", new byte[40]), box("mdat", OTHER_AUDIO)));
+
+        assertEquals(AudioHasher.hash(plain), AudioHasher.hash(retagged));
+        assertNotEquals(AudioHasher.hash(plain), AudioHasher.hash(other));
+        assertThrows(IOException.class, () -> AudioHasher.hash(write("d.m4a", concat(ftyp, box("moov", new byte[40])))));
+    }
+
+    @Test
+    void supportsOnlyFormatsItCanSeparate() throws IOException {
+        assertTrue(AudioHasher.supports(new File("a.MP3")));
+        assertTrue(AudioHasher.supports(new File("a.flac")));
+        assertTrue(AudioHasher.supports(new File("a.m4a")));
+        assertFalse(AudioHasher.supports(new File("a.ogg")));
+        assertThrows(IOException.class, () -> AudioHasher.hash(write("a.wav", AUDIO)));
+    }
+
+    private File write(String name, byte[] bytes) throws IOException {
+        return Files.write(directory.resolve(name), bytes).toFile();
+    }
+
+    private static byte[] flac(byte[] audio, byte[]... blocks) {
+        blocks[blocks.length - 1][0] |= (byte) 0x80;
+        byte[][] parts = new byte[blocks.length + 2][];
+        parts[0] = "fLaC".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(blocks, 0, parts, 1, blocks.length);
+        parts[parts.length - 1] = audio;
+        return concat(parts);
+    }
+
+    private static byte[] block(int type, int length) {
+        ByteBuffer block = ByteBuffer.allocate(4 + length);
+        block.putInt(type << 24 | length);
+        return block.array();
+    }
+
+    private static byte[] box(String type, byte[] payload) {
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(8 + payload.length)
+                .put(type.getBytes(StandardCharsets.US_ASCII))
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] largeBox(String type, byte[] payload) {
+        return ByteBuffer.allocate(16 + payload.length)
+                .putInt(1)
+                .put(type.getBytes(StandardCharsets.US_ASCII))
+                .putLong(16 + payload.length)
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
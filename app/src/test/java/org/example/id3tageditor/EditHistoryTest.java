@@ -0,0 +1,164 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EditHistoryTest {
+
+    private static final long BUDGET = 1 << 20;
+
+    @Test
+    void undoAndRedoABatch() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag first = TestFiles.tag("/a.mp3", "One", "Artist", "Album", "1");
+        ID3Tag second = TestFiles.tag("/b.mp3", "Two", "Artist", "Album", "2");
+
+        EditHistory.Batch batch = history.begin("Set album");
+        batch.set(first, TagField.ALBUM, "New");
+        batch.set(second, TagField.ALBUM, "New");
+        batch.set(second, TagField.ARTIST, "Artist");
+        assertEquals(2, batch.size());
+        assertTrue(history.commit(batch));
+        assertEquals("Set album", history.getUndoDescription());
+
+        assertEquals(List.of(first, second), history.undo());
+        assertEquals("Album", first.getAlbum());
+        assertEquals("Album", second.getAlbum());
+        assertFalse(first.isDirty());
+        assertFalse(history.canUndo());
+        assertEquals("Set album", history.getRedoDescription());
+
+        history.redo();
+        assertEquals("New", first.getAlbum());
+        assertTrue(first.isDirty(TagField.ALBUM));
+        assertFalse(second.isDirty(TagField.ARTIST));
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void undoRestoresFieldChangedTwiceInOneBatch() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+
+        EditHistory.Batch batch = history.begin("Rules");
+        batch.set(tag, TagField.TITLE, "Two");
+        batch.set(tag, TagField.TITLE, "Three");
+        history.commit(batch);
+        history.undo();
+
+        assertEquals("One", tag.getTitle());
+    }
+
+    @Test
+    void emptyBatchIsNotRecorded() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+
+        EditHistory.Batch batch = history.begin("Nothing");
+        batch.set(tag, TagField.TITLE, "One");
+        batch.setArtwork(tag, null);
+
+        assertTrue(batch.isEmpty());
+        assertFalse(history.commit(batch));
+        assertFalse(history.canUndo());
+    }
+
+    @Test
+    void newEditClearsRedo() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+        set(history, tag, "Two");
+        history.undo();
+        assertTrue(history.canRedo());
+
+        set(history, tag, "Three");
+
+        assertFalse(history.canRedo());
+        history.undo();
+        assertEquals("One", tag.getTitle());
+    }
+
+    @Test
+    void changedFieldsStayDirtyWhenSavedInBetween() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+        set(history, tag, "Two");
+        tag.markClean();
+
+        history.undo();
+
+        assertEquals("One", tag.getTitle());
+        assertTrue(tag.isDirty(TagField.TITLE));
+    }
+
+    @Test
+    void undoesArtworkWithoutCopyingIt() {
+        EditHistory history = new EditHistory(BUDGET);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+        ArtworkRef embedded = ArtworkRef.embedded();
+        tag.setArtwork(embedded);
+        tag.markClean();
+
+        EditHistory.Batch batch = history.begin("Remove cover");
+        batch.setArtwork(tag, null);
+        history.commit(batch);
+        assertNull(tag.getArtwork());
+        assertTrue(tag.isArtworkDirty());
+
+        history.undo();
+        assertSame(embedded, tag.getArtwork());
+        assertFalse(tag.isArtworkDirty());
+    }
+
+    @Test
+    void dropsOldestStepsOverBudget() {
+        ID3Tag tag = TestFiles.tag("/a.mp3", "z".repeat(100), "", "", "");
+        EditHistory probe = new EditHistory(BUDGET);
+        set(probe, TestFiles.tag("/b.mp3", "z".repeat(100), "", "", ""), "x".repeat(100));
+        long stepSize = probe.getSize();
+
+        EditHistory history = new EditHistory(stepSize * 3);
+        for (int i = 0; i < 10; i++) {
+            set(history, tag, String.valueOf((char) ('a' + i)).repeat(100));
+        }
+
+        assertTrue(history.getSize() <= stepSize * 3);
+        int steps = 0;
+        while (history.canUndo()) {
+            history.undo();
+            steps++;
+        }
+        assertEquals(3, steps);
+        assertEquals("g".repeat(100), tag.getTitle());
+
+        history.clear();
+        assertEquals(0, history.getSize());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void stepLargerThanBudgetCannotBeUndone() {
+        EditHistory history = new EditHistory(10);
+        ID3Tag tag = TestFiles.tag("/a.mp3", "One", "", "", "");
+
+        EditHistory.Batch batch = history.begin("Big");
+        batch.set(tag, TagField.TITLE, "Two");
+
+        assertFalse(history.commit(batch));
+        assertFalse(history.canUndo());
+        assertEquals("Two", tag.getTitle());
+    }
+
+    private static void set(EditHistory history, ID3Tag tag, String title) {
+        EditHistory.Batch batch = history.begin("Set title");
+        batch.set(tag, TagField.TITLE, title);
+        history.commit(batch);
+    }
+}
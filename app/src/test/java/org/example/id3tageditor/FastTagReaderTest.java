@@ -0,0 +1,206 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FastTagReaderTest {
+
+    private static final byte[] AUDIO = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0, 0, 0, 0, 0};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsId3v23Frames() throws IOException {
+        File file = write("v23.mp3", id3v2(3, 0, 100,
+                frame(3, "TIT2", text(0, "Title")),
+                frame(3, "TPE1", text(1, "Ärtist")),
+                frame(3, "TRCK", text(0, "3/12")),
+                frame(3, "TYER", text(0, "1999")),
+                frame(3, "TCON", text(0, "(17)")),
+                frame(3, "COMM", described(0, "Comment"))), null);
+
+        ID3Tag tag = FastTagReader.read(file);
+
+        assertNotNull(tag);
+        assertEquals("Title", tag.getTitle());
+        assertEquals("Ärtist", tag.getArtist());
+        assertEquals("3", tag.getTrack());
+        assertEquals("12", tag.getTrackTotal());
+        assertEquals("1999", tag.getYear());
+        assertEquals("Rock", tag.getGenre());
+        assertEquals("Comment", tag.getComment());
+        assertEquals("", tag.getAlbum());
+        assertEquals(file.length(), tag.getFileLength());
+    }
+
+    @Test
+    void readsId3v24AndV22Frames() throws IOException {
+        File v24 = write("v24.mp3", id3v2(4, 0, 0,
+                frame(4, "TIT2", text(3, "Tïtle")),
+                frame(4, "TDRC", text(3, "2001-05")),
+                frame(4, "TYER", text(3, "1900"))), null);
+        ID3Tag tag = FastTagReader.read(v24);
+        assertEquals("Tïtle", tag.getTitle());
+        assertEquals("2001-05", tag.getYear());
+
+        File v22 = write("v22.mp3", id3v2(2, 0, 0,
+                frame(2, "TT2", text(0, "Old")),
+                frame(2, "TRK", text(0, "7"))), null);
+        tag = FastTagReader.read(v22);
+        assertEquals("Old", tag.getTitle());
+        assertEquals("7", tag.getTrack());
+        assertEquals("", tag.getTrackTotal());
+    }
+
+    @Test
+    void keepsFirstOfRepeatedFrames() throws IOException {
+        File file = write("repeated.mp3", id3v2(3, 0, 0,
+                frame(3, "TIT2", text(0, "First")),
+                frame(3, "TIT2", text(0, "Second"))), null);
+
+        assertEquals("First", FastTagReader.read(file).getTitle());
+    }
+
+    @Test
+    void givesUpOnTagsItDoesNotHandle() throws IOException {
+        File unsynchronised = write("unsync.mp3", id3v2(3, 0x80, 0, frame(3, "TIT2", text(0, "Title"))), null);
+        assertNull(FastTagReader.read(unsynchronised));
+
+        File badFrameId = write("bad.mp3", id3v2(3, 0, 0, frame(3, "ti!2", text(0, "Title"))), null);
+        assertNull(FastTagReader.read(badFrameId));
+    }
+
+    @Test
+    void readsId3v1WhenThereIsNoId3v2Tag() throws IOException {
+        File file = write("v1.mp3", new byte[0], id3v1("Title", "Artist", "Album", "1987", 5, 17));
+
+        ID3Tag tag = FastTagReader.read(file);
+
+        assertEquals("Title", tag.getTitle());
+        assertEquals("Artist", tag.getArtist());
+        assertEquals("Album", tag.getAlbum());
+        assertEquals("1987", tag.getYear());
+        assertEquals("5", tag.getTrack());
+        assertEquals("Rock", tag.getGenre());
+    }
+
+    @Test
+    void findsWhereAudioStartsAndEnds() throws IOException {
+        byte[] tag = id3v2(3, 0, 50, frame(3, "TIT2", text(0, "Title")));
+        File file = write("both.mp3", tag, id3v1("Title", "", "", "", 0, 255));
+
+        assertEquals(tag.length, FastTagReader.audioStart(file));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertEquals(tag.length + AUDIO.length, FastTagReader.audioEnd(channel));
+        }
+
+        File untagged = write("none.mp3", new byte[0], null);
+        assertEquals(0, FastTagReader.audioStart(untagged));
+        assertNull(FastTagReader.read(untagged).getTitle());
+    }
+
+    @Test
+    void namesNumericGenres() {
+        assertEquals("Rock", FastTagReader.genreName("(17)"));
+        assertEquals("Rock", FastTagReader.genreName("17"));
+        assertEquals("Synthwave", FastTagReader.genreName("Synthwave"));
+    }
+
+    private File write(String name, byte[] tag, byte[] id3v1) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(tag);
+        out.write(AUDIO);
+        if (id3v1 != null) {
+            out.write(id3v1);
+        }
+        Path path = directory.resolve(name);
+        Files.write(path, out.toByteArray());
+        return path.toFile();
+    }
+
+    private static byte[] id3v2(int version, int flags, int padding, byte[]... frames) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] frame : frames) {
+            body.writeBytes(frame);
+        }
+        body.writeBytes(new byte[padding]);
+        int size = body.size();
+
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.writeBytes(new byte[]{'I', 'D', '3', (byte) version, 0, (byte) flags});
+        tag.writeBytes(syncsafe(size));
+        tag.writeBytes(body.toByteArray());
+        return tag.toByteArray();
+    }
+
+    private static byte[] frame(int version, String id, byte[] body) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.writeBytes(id.getBytes(StandardCharsets.ISO_8859_1));
+        int size = body.length;
+        if (version == 2) {
+            frame.writeBytes(new byte[]{(byte) (size >> 16), (byte) (size >> 8), (byte) size});
+        } else {
+            frame.writeBytes(version == 4 ? syncsafe(size) : new byte[]{(byte) (size >> 24), (byte) (size >> 16), (byte) (size >> 8), (byte) size});
+            frame.writeBytes(new byte[2]);
+        }
+        frame.writeBytes(body);
+        return frame.toByteArray();
+    }
+
+    private static byte[] text(int encoding, String value) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(encoding);
+        body.writeBytes(value.getBytes(switch (encoding) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        }));
+        return body.toByteArray();
+    }
+
+    private static byte[] described(int encoding, String value) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(encoding);
+        body.writeBytes("eng".getBytes(StandardCharsets.ISO_8859_1));
+        body.write(0);
+        body.writeBytes(value.getBytes(StandardCharsets.ISO_8859_1));
+        return body.toByteArray();
+    }
+
+    private static byte[] id3v1(String title, String artist, String album, String year, int track, int genre) {
+        byte[] block = new byte[128];
+        block[0] = 'T';
+        block[1] = 'A';
+        block[2] = 'G';
+        put(block, 3, 30, title);
+        put(block, 33, 30, artist);
+        put(block, 63, 30, album);
+        put(block, 93, 4, year);
+        block[126] = (byte) track;
+        block[127] = (byte) genre;
+        return block;
+    }
+
+    private static void put(byte[] block, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, block, offset, Math.min(length, bytes.length));
+    }
+
+    private static byte[] syncsafe(int value) {
+        return new byte[]{(byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F), (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)};
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FilenamePatternTest {
+
+    @Test
+    void formatsTagAsRelativePath() {
+        FilenamePattern pattern = FilenamePattern.compile(FilenamePattern.DEFAULT_RENAME);
+        ID3Tag tag = TestFiles.tag("/music/x.mp3", "Song", "Artist", "Album", "3");
+
+        assertEquals("Artist/Album/03 - Song", pattern.format(tag));
+    }
+
+    @Test
+    void replacesCharactersNotAllowedInFileNames() {
+        FilenamePattern pattern = FilenamePattern.compile("%artist% - %title%");
+        ID3Tag tag = TestFiles.tag("/music/x.mp3", "What? A/B: \"C\"...", ".hidden", "", "");
+
+        assertEquals("_hidden - What_ A_B_ _C_", pattern.format(tag));
+    }
+
+    @Test
+    void formatIsNullWhenAFieldIsEmpty() {
+        FilenamePattern pattern = FilenamePattern.compile("%artist%/%title%");
+
+        assertNull(pattern.format(TestFiles.tag("/music/x.mp3", "Song", " ", "", "")));
+        assertNull(pattern.format(TestFiles.tag("/music/x.mp3", null, "Artist", "", "")));
+    }
+
+    @Test
+    void parsesValuesFromEndOfPath() {
+        FilenamePattern pattern = FilenamePattern.compile(FilenamePattern.DEFAULT_PARSE);
+
+        Map<TagField, String> values = pattern.parse("/music/Artist - Album/07 - A - Song.mp3");
+
+        assertEquals(Map.of(TagField.ARTIST, "Artist", TagField.ALBUM, "Album", TagField.TRACK, "7", TagField.TITLE, "A - Song"), values);
+        assertNull(pattern.parse("/music/Loose file.mp3"));
+    }
+
+    @Test
+    void parseSkipsWildcardAndAcceptsBackslashes() {
+        FilenamePattern pattern = FilenamePattern.compile("%track%. %*% - %title%");
+
+        assertEquals(Map.of(TagField.TRACK, "12", TagField.TITLE, "Song"), pattern.parse("C:\\music\\12. Someone - Song.flac"));
+        assertThrows(IllegalArgumentException.class, () -> pattern.format(TestFiles.tag("/x.mp3", "Song", "", "", "12")));
+    }
+
+    @Test
+    void rejectsPatternsThatDoNotNameARelativeFile() {
+        for (String text : new String[]{"", "  ", "/%title%", "%artist%/", "%artist%//%title%", "../%title%", "%album%/./%title%"}) {
+            assertThrows(IllegalArgumentException.class, () -> FilenamePattern.compile(text), text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> FilenamePattern.compile("%title"));
+        assertThrows(IllegalArgumentException.class, () -> FilenamePattern.compile("%mood%"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.id3tageditor;
+
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Id3v2TagWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void overwritesTagInPlaceWhenItFits() throws Exception {
+        File file = TestFiles.tagged(directory.resolve("a.mp3"), "Title", "Artist", 1024);
+        long length = file.length();
+        byte[] audio = TestFiles.audioOf(file);
+
+        AbstractID3v2Tag tag = id3v2(file);
+        tag.setField(FieldKey.TITLE, "A longer title that still fits");
+        Id3v2TagWriter.write(tag, file, 1024);
+
+        assertEquals(length, file.length());
+        assertArrayEquals(audio, TestFiles.audioOf(file));
+        assertEquals("A longer title that still fits", id3v2(file).getFirst(FieldKey.TITLE));
+        assertEquals("Artist", id3v2(file).getFirst(FieldKey.ARTIST));
+    }
+
+    @Test
+    void rewritesFileWithPaddingWhenTagGrows() throws Exception {
+        File file = TestFiles.tagged(directory.resolve("a.mp3"), "Title", "Artist", 0);
+        long length = file.length();
+        byte[] audio = TestFiles.audioOf(file);
+
+        AbstractID3v2Tag tag = id3v2(file);
+        String lyrics = "la ".repeat(2000);
+        tag.setField(FieldKey.LYRICS, lyrics);
+        long written = Id3v2TagWriter.write(tag, file, 512);
+
+        assertTrue(file.length() > length + lyrics.length());
+        assertEquals(file.length(), written);
+        assertArrayEquals(audio, TestFiles.audioOf(file));
+        assertEquals(lyrics, id3v2(file).getFirst(FieldKey.LYRICS));
+
+        // The padding left behind lets the next small edit be written in place.
+        long grown = file.length();
+        tag = id3v2(file);
+        tag.setField(FieldKey.TITLE, "Title 2");
+        Id3v2TagWriter.write(tag, file, 512);
+        assertEquals(grown, file.length());
+    }
+
+    @Test
+    void writeCopyLeavesSourceUntouched() throws Exception {
+        File source = TestFiles.tagged(directory.resolve("a.mp3"), "Title", "Artist", 256);
+        byte[] before = Files.readAllBytes(source.toPath());
+        File target = directory.resolve("b.mp3").toFile();
+
+        AbstractID3v2Tag tag = id3v2(source);
+        tag.setField(FieldKey.TITLE, "Copy");
+        Id3v2TagWriter.writeCopy(tag, source, target, 256);
+
+        assertArrayEquals(before, Files.readAllBytes(source.toPath()));
+        assertArrayEquals(TestFiles.audioOf(source), TestFiles.audioOf(target));
+        assertEquals("Copy", id3v2(target).getFirst(FieldKey.TITLE));
+        assertEquals("Title", id3v2(source).getFirst(FieldKey.TITLE));
+    }
+
+    private static AbstractID3v2Tag id3v2(File file) throws Exception {
+        return ((MP3File) AudioFileIO.read(file)).getID3v2Tag();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RenamePlanTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void plansMovesUnderRoot() {
+        ID3Tag tag = TestFiles.tag(directory.resolve("in/x.mp3").toString(), "Song", "Artist", "Album", "1");
+
+        RenamePlan plan = RenamePlan.create(List.of(tag), FilenamePattern.compile(FilenamePattern.DEFAULT_RENAME), directory);
+
+        RenamePlan.Entry entry = plan.getEntries().get(0);
+        assertEquals(RenamePlan.Status.MOVE, entry.status());
+        assertEquals(directory.resolve("in/x.mp3"), entry.source());
+        assertEquals(directory.resolve("Artist/Album/01 - Song.mp3"), entry.target());
+        assertEquals(List.of(entry), plan.getMoves());
+    }
+
+    @Test
+    void resolvesAgainstEachFilesFolderWithoutRoot() {
+        ID3Tag tag = TestFiles.tag(directory.resolve("in/x.MP3").toString(), "Song", "", "", "");
+
+        RenamePlan plan = RenamePlan.create(List.of(tag), FilenamePattern.compile("%title%"), null);
+
+        assertEquals(directory.resolve("in/Song.MP3"), plan.getEntries().get(0).target());
+    }
+
+    @Test
+    void marksUnchangedAndMissingFields() {
+        ID3Tag unchanged = TestFiles.tag(directory.resolve("Song.mp3").toString(), "Song", "", "", "");
+        ID3Tag missing = TestFiles.tag(directory.resolve("y.mp3").toString(), "", "", "", "");
+
+        RenamePlan plan = RenamePlan.create(List.of(unchanged, missing), FilenamePattern.compile("%title%"), null);
+
+        assertEquals(RenamePlan.Status.UNCHANGED, plan.getEntries().get(0).status());
+        assertEquals(RenamePlan.Status.MISSING_FIELDS, plan.getEntries().get(1).status());
+        assertNull(plan.getEntries().get(1).target());
+        assertEquals(List.of(), plan.getMoves());
+    }
+
+    @Test
+    void marksEveryFileAimingAtTheSameNameIgnoringCase() {
+        ID3Tag first = TestFiles.tag(directory.resolve("a.mp3").toString(), "Song", "", "", "");
+        ID3Tag second = TestFiles.tag(directory.resolve("b.mp3").toString(), "SONG", "", "", "");
+        ID3Tag other = TestFiles.tag(directory.resolve("c.mp3").toString(), "Other", "", "", "");
+
+        RenamePlan plan = RenamePlan.create(List.of(first, second, other), FilenamePattern.compile("%title%"), null);
+
+        assertEquals(RenamePlan.Status.COLLISION, plan.getEntries().get(0).status());
+        assertEquals(RenamePlan.Status.COLLISION, plan.getEntries().get(1).status());
+        assertEquals(RenamePlan.Status.MOVE, plan.getEntries().get(2).status());
+        assertEquals(1, plan.getMoves().size());
+    }
+
+    @Test
+    void doesNotOverwriteExistingFilesButAllowsCaseChanges() throws IOException {
+        Files.createFile(directory.resolve("Taken.mp3"));
+        Files.createFile(directory.resolve("song.mp3"));
+        ID3Tag blocked = TestFiles.tag(directory.resolve("a.mp3").toString(), "Taken", "", "", "");
+        ID3Tag recased = TestFiles.tag(directory.resolve("song.mp3").toString(), "Song", "", "", "");
+
+        RenamePlan plan = RenamePlan.create(List.of(blocked, recased), FilenamePattern.compile("%title%"), null);
+
+        assertEquals(RenamePlan.Status.EXISTS, plan.getEntries().get(0).status());
+        assertEquals(RenamePlan.Status.MOVE, plan.getEntries().get(1).status());
+    }
+
+    @Test
+    void singleMovesOneFile() {
+        ID3Tag tag = TestFiles.tag(directory.resolve("a.mp3").toString(), "Song", "", "", "");
+
+        RenamePlan plan = RenamePlan.single(tag, directory.resolve("sub/../b.mp3"));
+
+        assertEquals(List.of(new RenamePlan.Entry(tag, directory.resolve("a.mp3"), directory.resolve("b.mp3"), RenamePlan.Status.MOVE)),
+                plan.getMoves());
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.id3tageditor;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private final ID3Tag abbeyRoad = TestFiles.tag("/music/come_together.mp3", "Come Together", "The Beatles", "Abbey Road", "1");
+    private final ID3Tag letItBe = TestFiles.tag("/music/let it be.mp3", "Let It Be", "The Beatles", "Let It Be", "6");
+    private final ID3Tag bjork = TestFiles.tag("/music/joga.mp3", "Jóga", "Björk", "Homogenic", "3");
+    private final ObservableList<ID3Tag> tags = FXCollections.observableArrayList(abbeyRoad, letItBe, bjork);
+    private final SearchIndex index = new SearchIndex(tags);
+
+    @Test
+    void matchesWordPrefixesInEveryTerm() {
+        assertEquals(List.of(abbeyRoad), matches(index.search("beat abb")));
+        assertEquals(List.of(abbeyRoad, letItBe), matches(index.search("BEATLES")));
+        assertEquals(List.of(), matches(index.search("beatles homo")));
+        assertEquals(List.of(abbeyRoad), matches(index.search("together")));
+    }
+
+    @Test
+    void ignoresAccents() {
+        assertEquals(List.of(bjork), matches(index.search("bjork joga")));
+        assertEquals(List.of(bjork), matches(index.search("Björk")));
+    }
+
+    @Test
+    void blankQueryHasNoFilter() {
+        assertNull(index.search(""));
+        assertNull(index.search("  ,  "));
+    }
+
+    @Test
+    void followsListChanges() {
+        ID3Tag added = TestFiles.tag("/music/abba.mp3", "Waterloo", "ABBA", "Waterloo", "1");
+        Predicate<ID3Tag> before = index.search("abba");
+
+        tags.add(added);
+        tags.remove(abbeyRoad);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(added), matches(index.search("ab")));
+        // A filter made before the tag was added still matches it.
+        assertTrue(before.test(added));
+        assertFalse(index.search("beat").test(abbeyRoad));
+    }
+
+    @Test
+    void updateReindexesEditedTags() {
+        letItBe.setAlbum("Naked");
+        letItBe.setFilePath("/music/naked.mp3");
+        assertEquals(List.of(), matches(index.search("naked")));
+
+        index.update(List.of(letItBe));
+
+        assertEquals(List.of(letItBe), matches(index.search("naked")));
+        assertEquals(List.of(letItBe), matches(index.search("let")));
+    }
+
+    @Test
+    void splitsAndFoldsWords() {
+        assertArrayEquals(new String[]{"beyonce", "crazy", "in", "love"}, SearchIndex.words("Crazy in Love — Beyoncé, LOVE"));
+        assertArrayEquals(new String[0], SearchIndex.words(" - "));
+    }
+
+    private List<ID3Tag> matches(Predicate<ID3Tag> filter) {
+        return tags.stream().filter(filter).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void savedEntriesSurviveReload() throws IOException {
+        Path cacheFile = directory.resolve("cache").resolve("tag-cache.bin");
+        File first = TestFiles.audio(directory.resolve("first.mp3"), 1);
+        File second = TestFiles.audio(directory.resolve("second.mp3"), 2);
+
+        TagCache cache = new TagCache(cacheFile);
+        ID3Tag tag = TestFiles.tag(first.getPath(), "One", "Artist", "Album", "1");
+        tag.setComment(null);
+        tag.setTrackLength(42);
+        tag.setBitrate("128");
+        tag.setMimeType("MPEG-1 Layer 3");
+        tag.setArtwork(ArtworkRef.embedded());
+        cache.store(first, tag, attributes(first));
+        cache.store(second, TestFiles.tag(second.getPath(), "Two", "Artist", "Album", "2"), attributes(second));
+        cache.storeAudioHash(first, attributes(first), "hash-1");
+        cache.save();
+
+        assertTrue(Files.isRegularFile(cacheFile));
+        assertFalse(Files.exists(cacheFile.resolveSibling("tag-cache.bin.tmp")));
+
+        TagCache loaded = new TagCache(cacheFile);
+        ID3Tag read = loaded.lookup(first, attributes(first));
+        assertNotNull(read);
+        assertEquals(first.getAbsolutePath(), read.getFilePath());
+        assertEquals("One", read.getTitle());
+        assertEquals("Artist", read.getArtist());
+        assertNull(read.getComment());
+        assertEquals(42, read.getTrackLength());
+        assertEquals("128", read.getBitrate());
+        assertEquals("MPEG-1 Layer 3", read.getMimeType());
+        assertNotNull(read.getArtwork());
+        assertEquals("hash-1", loaded.lookupAudioHash(first, attributes(first)));
+
+        ID3Tag other = loaded.lookup(second, attributes(second));
+        assertEquals("Two", other.getTitle());
+        // Values repeated across entries come back as one shared string.
+        assertSame(read.getAlbum(), other.getAlbum());
+        assertNull(loaded.lookup(directory.resolve("missing.mp3").toFile(), attributes(second)));
+    }
+
+    @Test
+    void dropsEntriesForChangedFiles() throws IOException {
+        Path cacheFile = directory.resolve("tag-cache.bin");
+        File file = TestFiles.audio(directory.resolve("a.mp3"), 1);
+        TagCache cache = new TagCache(cacheFile);
+        cache.store(file, TestFiles.tag(file.getPath(), "One", "", "", ""), attributes(file));
+        cache.save();
+
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 5000));
+
+        TagCache loaded = new TagCache(cacheFile);
+        assertFalse(loaded.isCurrent(file, attributes(file)));
+        assertNull(loaded.lookupAudioHash(file, attributes(file)));
+        assertNull(loaded.lookup(file, attributes(file)));
+    }
+
+    @Test
+    void storingAnUnchangedFileKeepsItsAudioHash() throws IOException {
+        File file = TestFiles.audio(directory.resolve("a.mp3"), 1);
+        TagCache cache = new TagCache(directory.resolve("tag-cache.bin"));
+        cache.store(file, TestFiles.tag(file.getPath(), "One", "", "", ""), attributes(file));
+        cache.storeAudioHash(file, attributes(file), "hash-1");
+
+        cache.store(file, TestFiles.tag(file.getPath(), "Two", "", "", ""), attributes(file));
+        assertEquals("hash-1", cache.lookupAudioHash(file, attributes(file)));
+
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 5000));
+        cache.store(file, TestFiles.tag(file.getPath(), "Three", "", "", ""), attributes(file));
+        assertNull(cache.lookupAudioHash(file, attributes(file)));
+    }
+
+    @Test
+    void renameCarriesEntryOver() throws IOException {
+        Path cacheFile = directory.resolve("tag-cache.bin");
+        File from = TestFiles.audio(directory.resolve("a.mp3"), 1);
+        TagCache cache = new TagCache(cacheFile);
+        cache.store(from, TestFiles.tag(from.getPath(), "One", "", "", ""), attributes(from));
+
+        File to = directory.resolve("b.mp3").toFile();
+        Files.move(from.toPath(), to.toPath());
+        cache.rename(from, to);
+        cache.save();
+
+        TagCache loaded = new TagCache(cacheFile);
+        assertEquals("One", loaded.lookup(to, attributes(to)).getTitle());
+        loaded.invalidate(to);
+        assertNull(loaded.lookup(to, attributes(to)));
+    }
+
+    @Test
+    void savingDropsEntriesOfMissingFiles() throws IOException {
+        Path cacheFile = directory.resolve("tag-cache.bin");
+        File kept = TestFiles.audio(directory.resolve("a.mp3"), 1);
+        File deleted = TestFiles.audio(directory.resolve("b.mp3"), 2);
+        BasicFileAttributes deletedAttributes = attributes(deleted);
+        TagCache cache = new TagCache(cacheFile);
+        cache.store(kept, TestFiles.tag(kept.getPath(), "One", "", "", ""), attributes(kept));
+        cache.store(deleted, TestFiles.tag(deleted.getPath(), "Two", "", "", ""), deletedAttributes);
+        cache.save();
+
+        Files.delete(deleted.toPath());
+        TagCache loaded = new TagCache(cacheFile);
+        loaded.store(kept, TestFiles.tag(kept.getPath(), "One again", "", "", ""), attributes(kept));
+        loaded.save();
+
+        TagCache reloaded = new TagCache(cacheFile);
+        assertEquals("One again", reloaded.lookup(kept, attributes(kept)).getTitle());
+        assertNull(reloaded.lookup(deleted, deletedAttributes));
+    }
+
+    @Test
+    void ignoresUnreadableCacheFile() throws IOException {
+        Path cacheFile = directory.resolve("tag-cache.bin");
+        Files.write(cacheFile, new byte[]{0x54, 0x4C, 0x43, 0x01, 0, 0, 0, 2, 0, 0});
+        File file = TestFiles.audio(directory.resolve("a.mp3"), 1);
+
+        TagCache cache = new TagCache(cacheFile);
+        assertNull(cache.lookup(file, attributes(file)));
+
+        cache.store(file, TestFiles.tag(file.getPath(), "One", "", "", ""), attributes(file));
+        cache.save();
+        assertEquals("One", new TagCache(cacheFile).lookup(file, attributes(file)).getTitle());
+    }
+
+    private static BasicFileAttributes attributes(File file) throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.id3tageditor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void csvRoundTrip() throws IOException {
+        roundTrip(directory.resolve("tags.csv"));
+    }
+
+    @Test
+    void jsonRoundTrip() throws IOException {
+        roundTrip(directory.resolve("tags.json"));
+    }
+
+    private void roundTrip(Path file) throws IOException {
+        TagTable.Format format = TagTable.Format.of(file);
+        List<ID3Tag> tags = List.of(
+                TestFiles.tag("/music/a.mp3", "Plain", "Artist", "Album", "1"),
+                TestFiles.tag("/music/b, \"c\".mp3", "Comma, \"quote\"", " padded ", "Line\r\nbreak", ""),
+                TestFiles.tag("/music/ü.mp3", "Ünïcode ☃", "Tab\tand \\ backslash", null, "3"));
+
+        try (TagTableWriter writer = TagTableWriter.open(file, format)) {
+            for (ID3Tag tag : tags) {
+                writer.write(tag);
+            }
+            assertEquals(3, writer.getRowCount());
+        }
+
+        List<TagTable.Row> rows = readAll(file);
+        assertEquals(3, rows.size());
+        for (int i = 0; i < tags.size(); i++) {
+            TagTable.Row row = rows.get(i);
+            assertEquals(tags.get(i).getFilePath(), row.path());
+            assertEquals(TagField.values().length, row.values().size());
+            assertEquals(Map.of(), TagTable.changes(tags.get(i), row));
+        }
+        assertEquals(" padded ", rows.get(1).values().get(TagField.ARTIST));
+    }
+
+    @Test
+    void readsCsvWithSomeColumnsInAnyOrder() throws IOException {
+        Path file = write("tags.csv", "Title,PATH,track\r\n\"Two\nlines\",a.mp3,4\r\n\r\nOnly,b.mp3\n");
+
+        List<TagTable.Row> rows = readAll(file);
+
+        assertEquals(2, rows.size());
+        assertEquals("a.mp3", rows.get(0).path());
+        assertEquals(Map.of(TagField.TITLE, "Two\nlines", TagField.TRACK, "4"), rows.get(0).values());
+        assertEquals(Map.of(TagField.TITLE, "Only"), rows.get(1).values());
+        assertEquals(5, rows.get(1).number());
+    }
+
+    @Test
+    void readsJsonLinesWithNumbersAndNulls() throws IOException {
+        Path file = write("tags.json", "{\"path\": \"a.mp3\", \"track\": 7, \"album\": null}\n{\"path\": \"b.mp3\", \"title\": \"\\u00e9t\\u00e9\"}\n");
+
+        List<TagTable.Row> rows = readAll(file);
+
+        assertEquals(2, rows.size());
+        assertEquals("7", rows.get(0).values().get(TagField.TRACK));
+        assertTrue(rows.get(0).values().containsKey(TagField.ALBUM));
+        assertNull(rows.get(0).values().get(TagField.ALBUM));
+        assertEquals("été", rows.get(1).values().get(TagField.TITLE));
+    }
+
+    @Test
+    void rejectsMalformedTables() throws IOException {
+        assertThrows(IOException.class, () -> readAll(write("unknown.csv", "path,mood\na.mp3,happy\n")));
+        assertThrows(IOException.class, () -> readAll(write("nopath.csv", "title\nSong\n")));
+        assertThrows(IOException.class, () -> readAll(write("extra.csv", "path,title\na.mp3,Song,more\n")));
+        assertThrows(IOException.class, () -> readAll(write("open.csv", "path,title\na.mp3,\"Song\n")));
+        assertThrows(IOException.class, () -> readAll(write("nopath.json", "[{\"title\": \"Song\"}]")));
+        assertThrows(IOException.class, () -> readAll(write("literal.json", "[{\"path\": \"a.mp3\", \"title\": true}]")));
+    }
+
+    @Test
+    void changesTreatEmptyAsMissing() {
+        ID3Tag tag = TestFiles.tag("/music/a.mp3", "Title", "", null, "1");
+        TagTable.Row row = new TagTable.Row(1, "a.mp3", Map.of(
+                TagField.TITLE, "New", TagField.ARTIST, "", TagField.ALBUM, "", TagField.TRACK, ""));
+
+        Map<TagField, String> changes = TagTable.changes(tag, row);
+
+        assertEquals(2, changes.size());
+        assertEquals("New", changes.get(TagField.TITLE));
+        assertTrue(changes.containsKey(TagField.TRACK));
+        assertNull(changes.get(TagField.TRACK));
+    }
+
+    @Test
+    void resolvesRelativePathsAgainstBase() {
+        TagTable.Row relative = new TagTable.Row(1, "sub/../a.mp3", Map.of());
+        assertEquals(directory.resolve("a.mp3"), TagTable.resolve(directory, relative));
+
+        TagTable.Row absolute = new TagTable.Row(1, directory.resolve("b.mp3").toString(), Map.of());
+        assertEquals(directory.resolve("b.mp3"), TagTable.resolve(Path.of("elsewhere"), absolute));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<TagTable.Row> readAll(Path file) throws IOException {
+        List<TagTable.Row> rows = new ArrayList<>();
+        try (TagTableReader reader = TagTableReader.open(file, TagTable.Format.of(file))) {
+            TagTable.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.id3tageditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Small MP3 files for tests: silent MPEG-1 Layer III frames, optionally preceded by a tag written
+ * through {@link ID3TagService}.
+ */
+final class TestFiles {
+
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAMES = 200;
+
+    private TestFiles() {
+    }
+
+    /**
+     * Writes untagged audio; {@code seed} varies the frame contents so files can be told apart.
+     */
+    static File audio(Path path, int seed) throws IOException {
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        try (OutputStream out = Files.newOutputStream(path)) {
+            for (int i = 0; i < FRAMES; i++) {
+                frame[10] = (byte) (seed + i);
+                out.write(frame);
+            }
+        }
+        return path.toFile();
+    }
+
+    /**
+     * Writes audio tagged with a title and artist, with {@code padding} bytes of room in the tag.
+     */
+    static File tagged(Path path, String title, String artist, int padding) throws Exception {
+        File file = audio(path, 0);
+        ID3TagService service = new ID3TagService();
+        service.setPaddingSize(padding);
+        ID3Tag tag = service.readTags(file);
+        tag.setTitle(title);
+        tag.setArtist(artist);
+        service.saveTags(tag, file);
+        return file;
+    }
+
+    /**
+     * The bytes of a file after its ID3v2 tag.
+     */
+    static byte[] audioOf(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        return Arrays.copyOfRange(bytes, (int) FastTagReader.audioStart(file), bytes.length);
+    }
+
+    static ID3Tag tag(String path, String title, String artist, String album, String track) {
+        ID3Tag tag = new ID3Tag();
+        tag.setFilePath(path);
+        tag.setTitle(title);
+        tag.setArtist(artist);
+        tag.setAlbum(album);
+        tag.setTrack(track);
+        tag.markClean();
+        return tag;
+    }
+}
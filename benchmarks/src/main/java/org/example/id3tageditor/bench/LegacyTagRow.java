@@ -0,0 +1,39 @@
+package org.example.id3tageditor.bench;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * The previous ID3Tag layout (one eagerly allocated property per field), kept as the baseline
+ * for {@link TagMemoryBenchmark}.
+ */
+class LegacyTagRow {
+
+    final StringProperty filePath = new SimpleStringProperty();
+    final StringProperty fileName = new SimpleStringProperty();
+    final StringProperty title = new SimpleStringProperty();
+    final StringProperty artist = new SimpleStringProperty();
+    final StringProperty album = new SimpleStringProperty();
+    final StringProperty year = new SimpleStringProperty();
+    final StringProperty genre = new SimpleStringProperty();
+    final StringProperty comment = new SimpleStringProperty();
+    final StringProperty track = new SimpleStringProperty();
+    final StringProperty trackTotal = new SimpleStringProperty();
+    final StringProperty disk = new SimpleStringProperty();
+    final StringProperty diskTotal = new SimpleStringProperty();
+    final StringProperty lyrics = new SimpleStringProperty();
+    final StringProperty encoder = new SimpleStringProperty();
+    final StringProperty composer = new SimpleStringProperty();
+    final StringProperty lyricist = new SimpleStringProperty();
+    final StringProperty publisher = new SimpleStringProperty();
+    final StringProperty copyright = new SimpleStringProperty();
+    final StringProperty bpm = new SimpleStringProperty();
+    final StringProperty isrc = new SimpleStringProperty();
+    final StringProperty fileSize = new SimpleStringProperty();
+    final StringProperty duration = new SimpleStringProperty();
+    final StringProperty bitrate = new SimpleStringProperty();
+    final StringProperty mimeType = new SimpleStringProperty();
+    final ObjectProperty<Object> artwork = new SimpleObjectProperty<>();
+}
@@ -0,0 +1,145 @@
+package org.example.id3tageditor.bench;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.example.id3tageditor.ID3Tag;
+import org.example.id3tageditor.SelectionAggregate;
+import org.example.id3tageditor.TagField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The multi-selection paths of the editor on large selections: filling the detail pane, and
+ * applying an edit of the album to every selected tag. The {@code legacy} benchmarks replay the
+ * former per-field {@code getCommonValue} scans for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectionBenchmark {
+
+    private static final TagField[] FIELDS = TagField.values();
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private List<ID3Tag> tags;
+    private ObservableList<ID3Tag> selection;
+    private SelectionAggregate aggregate;
+    private Map<TagField, String> texts;
+    private ID3Tag extra;
+
+    @Setup(Level.Trial)
+    public void createTags() {
+        tags = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            tags.add(row(i));
+        }
+        extra = row(rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void selectAll() {
+        for (ID3Tag tag : tags) {
+            tag.set(TagField.ALBUM, "Album");
+            tag.markClean();
+        }
+        selection = FXCollections.observableArrayList(tags);
+        aggregate = new SelectionAggregate(selection);
+        texts = new EnumMap<>(TagField.class);
+        for (TagField field : FIELDS) {
+            texts.put(field, aggregate.commonValue(field));
+        }
+        texts.put(TagField.ALBUM, "Album (Remastered)");
+    }
+
+    private static ID3Tag row(int i) {
+        ID3Tag tag = new ID3Tag();
+        tag.setFilePath("/music/track" + i + ".mp3");
+        tag.setTitle("Title " + i);
+        tag.setArtist("Artist");
+        tag.setAlbum("Album");
+        tag.setYear("1999");
+        tag.setGenre("Rock");
+        tag.setTrack(String.valueOf(i + 1));
+        tag.setTrackTotal(String.valueOf(i + 1));
+        tag.markClean();
+        return tag;
+    }
+
+    @Benchmark
+    public void selectAllAndPopulate(Blackhole blackhole) {
+        SelectionAggregate fresh = new SelectionAggregate(FXCollections.observableArrayList(tags));
+        for (TagField field : FIELDS) {
+            blackhole.consume(fresh.commonValue(field));
+        }
+    }
+
+    @Benchmark
+    public void extendSelectionAndPopulate(Blackhole blackhole) {
+        selection.add(extra);
+        for (TagField field : FIELDS) {
+            blackhole.consume(aggregate.commonValue(field));
+        }
+    }
+
+    @Benchmark
+    public void applyEdits() {
+        Map<TagField, String> edits = aggregate.editsFrom(texts);
+        for (ID3Tag tag : tags) {
+            edits.forEach(tag::set);
+        }
+        aggregate.update(tags);
+    }
+
+    @Benchmark
+    public void legacyPopulate(Blackhole blackhole) {
+        for (TagField field : FIELDS) {
+            blackhole.consume(legacyCommonValue(tags, field));
+        }
+    }
+
+    @Benchmark
+    public void legacyApplyEdits() {
+        for (ID3Tag tag : tags) {
+            for (TagField field : FIELDS) {
+                String text = texts.get(field);
+                if (!text.isEmpty() || legacyCommonValue(tags, field).isEmpty()) {
+                    tag.set(field, text);
+                }
+            }
+        }
+    }
+
+    private static String legacyCommonValue(List<ID3Tag> tags, TagField field) {
+        if (tags.isEmpty()) return "";
+        String firstValue = tags.get(0).get(field);
+        for (int i = 1; i < tags.size(); i++) {
+            if (!Objects.equals(firstValue, tags.get(i).get(field))) {
+                return "";
+            }
+        }
+        return firstValue == null ? "" : firstValue;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.id3tageditor.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures cold start of the editor as a user sees it: the time from launching the process to
+ * the first frame of the window, and to the first row of a folder of synthetic files passed on
+ * the command line. Each run starts a new JVM with an empty tag cache, so the files are read
+ * rather than taken from the cache. Needs a display.
+ * <p>
+ * Usage: {@code StartupBenchmark [runs] [files] [launcher...]} (default 10 runs of 200 files).
+ * The launcher is the command that starts the editor, for instance {@code app/target/app/bin/app}
+ * to measure the linked image with its class-data sharing archive; by default the editor is
+ * started from this benchmark's module path.
+ */
+public class StartupBenchmark {
+
+    private static final String FIRST_FRAME = "first-frame";
+    private static final String FIRST_ROW = "first-row";
+    private static final long TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int fileCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<String> launcher = args.length > 2 ? List.of(Arrays.copyOfRange(args, 2, args.length)) : defaultLauncher();
+
+        Path directory = SyntheticCorpus.createDirectory();
+        try {
+            Path music = Files.createDirectory(directory.resolve("music"));
+            SyntheticCorpus.create(music, fileCount, SyntheticCorpus.TagSize.SMALL, 0, 0);
+
+            Map<String, long[]> times = new HashMap<>();
+            times.put(FIRST_FRAME, new long[runs]);
+            times.put(FIRST_ROW, new long[runs]);
+            // The first start warms the OS file cache and is not counted.
+            for (int run = -1; run < runs; run++) {
+                Map<String, Long> milestones = start(launcher, music, Files.createTempDirectory(directory, "home-"));
+                if (run >= 0) {
+                    for (Map.Entry<String, long[]> entry : times.entrySet()) {
+                        entry.getValue()[run] = milestones.get(entry.getKey());
+                    }
+                }
+            }
+
+            System.out.printf(Locale.US, "launcher: %s%n", String.join(" ", launcher));
+            System.out.printf(Locale.US, "runs: %d, files: %,d%n", runs, fileCount);
+            report("time to first frame", times.get(FIRST_FRAME));
+            report("time to first loaded row", times.get(FIRST_ROW));
+        } finally {
+            SyntheticCorpus.delete(directory);
+        }
+    }
+
+    /**
+     * The editor's module, run from the application artifact and JavaFX on this benchmark's
+     * class path.
+     */
+    private static List<String> defaultLauncher() {
+        String modulePath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> {
+                    String name = Path.of(entry).getFileName().toString();
+                    return name.startsWith("ID3TagEditor-") || name.startsWith("javafx-") || name.startsWith("jaudiotagger-");
+                })
+                .collect(Collectors.joining(File.pathSeparator));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return List.of(java, "-p", modulePath, "-m",
+                "org.example.id3tageditor/org.example.id3tageditor.ID3TagEditorApplication");
+    }
+
+    /**
+     * Starts the editor on {@code music} and returns the milliseconds from launch to each
+     * milestone, stopping it once the first row has been shown.
+     */
+    private static Map<String, Long> start(List<String> launcher, Path music, Path home) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(launcher);
+        command.add(music.toString());
+        ProcessBuilder builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD);
+        // Read by every java launcher, including the one in the linked image.
+        builder.environment().put("JDK_JAVA_OPTIONS", "-Dtunelabel.startupTrace=true -Duser.home=" + home);
+
+        Map<String, Long> milestones = new HashMap<>();
+        long launched = System.currentTimeMillis();
+        Process process = builder.start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (!milestones.containsKey(FIRST_ROW) && (line = out.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length == 3 && parts[0].equals("startup")) {
+                    milestones.put(parts[1], Long.parseLong(parts[2]) - launched);
+                }
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        if (!milestones.containsKey(FIRST_FRAME) || !milestones.containsKey(FIRST_ROW)) {
+            throw new IllegalStateException("The editor stopped before showing its first row; is a display available? "
+                    + "Command: " + String.join(" ", command));
+        }
+        return milestones;
+    }
+
+    private static void report(String label, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf(Locale.US, "%-26s median %,6d ms, min %,6d ms, max %,6d ms%n",
+                label + ":", sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1]);
+    }
+}
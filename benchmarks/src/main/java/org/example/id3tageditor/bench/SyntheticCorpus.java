@@ -0,0 +1,147 @@
+package org.example.id3tageditor.bench;
+
+import org.example.id3tageditor.ArtworkStore;
+import org.example.id3tageditor.ID3Tag;
+import org.example.id3tageditor.ID3TagService;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates MP3 files for the benchmarks: silent MPEG-1 Layer III frames behind an ID3v2 tag
+ * written by the application itself, with a chosen amount of text, cover art and padding.
+ */
+public final class SyntheticCorpus {
+
+    /** Amount of text in each tag. */
+    public enum TagSize {
+        /** The usual handful of short fields. */
+        SMALL(0),
+        /** Adds several kilobytes of lyrics and a long comment. */
+        LARGE(6000);
+
+        private final int extraText;
+
+        TagSize(int extraText) {
+            this.extraText = extraText;
+        }
+    }
+
+    // 128 kbit/s, 44.1 kHz, no padding: 417 bytes per frame.
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAMES = 2000;
+
+    private SyntheticCorpus() {
+    }
+
+    static Path createDirectory() throws IOException {
+        return Files.createTempDirectory("tunelabel-bench-");
+    }
+
+    static List<File> create(Path directory, int count, TagSize tagSize, int artworkEdge, int padding) throws Exception {
+        ID3TagService service = new ID3TagService();
+        service.setPaddingSize(padding);
+        byte[] artwork = artworkEdge > 0 ? jpeg(artworkEdge, 0.9f) : null;
+        ArtworkStore store = new ArtworkStore();
+
+        List<File> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            File file = directory.resolve(String.format("track%05d.mp3", i)).toFile();
+            writeAudio(file, i);
+            ID3Tag tag = service.readTags(file);
+            tag.setTitle("Title " + i);
+            tag.setArtist("Artist " + i / 40);
+            tag.setAlbum("Album " + i / 10);
+            tag.setYear(String.valueOf(1970 + i % 50));
+            tag.setGenre("Rock");
+            tag.setTrack(String.valueOf(i % 10 + 1));
+            tag.setTrackTotal("10");
+            tag.setComment("Comment " + i);
+            if (tagSize.extraText > 0) {
+                tag.setLyrics(text(tagSize.extraText, i));
+                tag.setComment(text(tagSize.extraText / 6, i + 1));
+            }
+            if (artwork != null) {
+                tag.setArtwork(store.intern(artwork));
+            }
+            service.saveTags(tag, file);
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * A noisy, gradient-filled JPEG of the given size, so it compresses about as badly as a
+     * scanned cover.
+     */
+    static byte[] jpeg(int edge, float quality) throws IOException {
+        BufferedImage image = new BufferedImage(edge, edge, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(edge);
+        for (int y = 0; y < edge; y++) {
+            for (int x = 0; x < edge; x++) {
+                int noise = random.nextInt(32);
+                image.setRGB(x, y, ((x * 255 / edge + noise) & 0xFF) << 16 | ((y * 255 / edge) & 0xFF) << 8 | noise * 4);
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    static void delete(Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void writeAudio(File file, int seed) throws IOException {
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            for (int i = 0; i < FRAMES; i++) {
+                frame[10] = (byte) (seed + i);
+                out.write(frame);
+            }
+        }
+    }
+
+    private static String text(int length, int seed) {
+        StringBuilder text = new StringBuilder(length);
+        Random random = new Random(seed);
+        while (text.length() < length) {
+            text.append(random.nextBoolean() ? "la " : "na ").append(random.nextInt(100)).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
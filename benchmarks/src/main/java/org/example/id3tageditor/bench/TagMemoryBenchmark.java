@@ -0,0 +1,166 @@
+package org.example.id3tageditor.bench;
+
+import org.example.id3tageditor.ID3Tag;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Measures the retained heap of a synthetic library held as {@link ID3Tag} rows versus the
+ * previous property-per-field layout. Values are created as fresh strings per row, the way a
+ * tag parser produces them, so the effect of interning shared fields is included.
+ * <p>
+ * Usage: {@code TagMemoryBenchmark [rows]} (default 200000).
+ */
+public class TagMemoryBenchmark {
+
+    private static final int TRACKS_PER_ALBUM = 12;
+    private static final int ALBUMS_PER_ARTIST = 4;
+    private static final String[] GENRES = {"Rock", "Pop", "Jazz", "Electronic", "Classical", "Hip-Hop", "Metal", "Folk"};
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        long legacyBytes = measure(() -> {
+            LegacyTagRow[] library = new LegacyTagRow[rows];
+            for (int i = 0; i < rows; i++) {
+                library[i] = legacyRow(i);
+            }
+            return library;
+        });
+        long compactBytes = measure(() -> {
+            ID3Tag[] library = new ID3Tag[rows];
+            for (int i = 0; i < rows; i++) {
+                library[i] = compactRow(i);
+            }
+            return library;
+        });
+        long boundBytes = measure(() -> {
+            ID3Tag[] library = new ID3Tag[rows];
+            for (int i = 0; i < rows; i++) {
+                library[i] = compactRow(i);
+                // Simulate every row having been scrolled into view once.
+                library[i].fileNameProperty();
+                library[i].titleProperty();
+                library[i].artistProperty();
+                library[i].albumProperty();
+                library[i].trackProperty();
+                library[i].yearProperty();
+                library[i].genreProperty();
+            }
+            return library;
+        });
+
+        System.out.printf(Locale.US, "rows: %,d%n", rows);
+        report("legacy properties", legacyBytes, rows);
+        report("compact ID3Tag", compactBytes, rows);
+        report("compact, columns bound", boundBytes, rows);
+        System.out.printf(Locale.US, "saving: %.1f%%%n", 100.0 * (legacyBytes - compactBytes) / legacyBytes);
+    }
+
+    private static LegacyTagRow legacyRow(int i) {
+        LegacyTagRow row = new LegacyTagRow();
+        String path = path(i);
+        row.filePath.set(path);
+        row.fileName.set(path.substring(path.lastIndexOf('/') + 1));
+        row.title.set(fresh("Track title " + i));
+        row.artist.set(fresh(artist(i)));
+        row.album.set(fresh(album(i)));
+        row.year.set(fresh(year(i)));
+        row.genre.set(fresh(genre(i)));
+        row.comment.set(fresh(""));
+        row.track.set(fresh(String.valueOf(i % TRACKS_PER_ALBUM + 1)));
+        row.trackTotal.set(fresh(String.valueOf(TRACKS_PER_ALBUM)));
+        row.disk.set(fresh("1"));
+        row.diskTotal.set(fresh("1"));
+        row.lyrics.set(fresh(""));
+        row.encoder.set(fresh("LAME 3.100"));
+        row.composer.set(fresh(""));
+        row.lyricist.set(fresh(""));
+        row.publisher.set(fresh(""));
+        row.copyright.set(fresh(""));
+        row.bpm.set(fresh(""));
+        row.isrc.set(fresh(""));
+        row.fileSize.set(fresh("7.45 MiB"));
+        row.duration.set(fresh("3 min 25 s"));
+        row.bitrate.set(fresh("320 kbps"));
+        row.mimeType.set(fresh("MPEG-1 Layer 3"));
+        return row;
+    }
+
+    private static ID3Tag compactRow(int i) {
+        ID3Tag tag = new ID3Tag();
+        tag.setFilePath(path(i));
+        tag.setTitle(fresh("Track title " + i));
+        tag.setArtist(fresh(artist(i)));
+        tag.setAlbum(fresh(album(i)));
+        tag.setYear(fresh(year(i)));
+        tag.setGenre(fresh(genre(i)));
+        tag.setComment(fresh(""));
+        tag.setTrack(fresh(String.valueOf(i % TRACKS_PER_ALBUM + 1)));
+        tag.setTrackTotal(fresh(String.valueOf(TRACKS_PER_ALBUM)));
+        tag.setDisk(fresh("1"));
+        tag.setDiskTotal(fresh("1"));
+        tag.setLyrics(fresh(""));
+        tag.setEncoder(fresh("LAME 3.100"));
+        tag.setComposer(fresh(""));
+        tag.setLyricist(fresh(""));
+        tag.setPublisher(fresh(""));
+        tag.setCopyright(fresh(""));
+        tag.setBpm(fresh(""));
+        tag.setIsrc(fresh(""));
+        tag.setFileLength(7_812_345L);
+        tag.setTrackLength(205);
+        tag.setBitrate(fresh("320 kbps"));
+        tag.setMimeType(fresh("MPEG-1 Layer 3"));
+        return tag;
+    }
+
+    private static String path(int i) {
+        return "/music/" + artist(i) + "/" + album(i) + "/" + String.format("%02d", i % TRACKS_PER_ALBUM + 1) + " Track title " + i + ".mp3";
+    }
+
+    private static String artist(int i) {
+        return "Artist " + i / (TRACKS_PER_ALBUM * ALBUMS_PER_ARTIST);
+    }
+
+    private static String album(int i) {
+        return "Album " + i / TRACKS_PER_ALBUM;
+    }
+
+    private static String year(int i) {
+        return String.valueOf(1960 + (i / TRACKS_PER_ALBUM) % 60);
+    }
+
+    private static String genre(int i) {
+        return GENRES[(i / TRACKS_PER_ALBUM) % GENRES.length];
+    }
+
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static String fresh(String value) {
+        return new String(value);
+    }
+
+    private static long measure(Supplier<Object> allocation) {
+        long before = usedHeap();
+        Object retained = allocation.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void report(String label, long bytes, int rows) {
+        System.out.printf(Locale.US, "%-24s %,12d bytes  %6.0f bytes/row%n", label, bytes, (double) bytes / rows);
+    }
+}
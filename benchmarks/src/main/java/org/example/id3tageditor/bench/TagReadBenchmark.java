@@ -0,0 +1,78 @@
+package org.example.id3tageditor.bench;
+
+import org.example.id3tageditor.ID3Tag;
+import org.example.id3tageditor.ID3TagService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one file's tag, without the tag cache: the full jaudiotagger read used by the detail
+ * pane and the header-only listing read used to fill the table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.config.file=/dev/null")
+public class TagReadBenchmark {
+
+    private static final int FILES = 32;
+
+    @Param({"SMALL", "LARGE"})
+    public SyntheticCorpus.TagSize tagSize;
+
+    @Param({"0", "600", "1500"})
+    public int artworkEdge;
+
+    @Param({"0", "4096"})
+    public int padding;
+
+    private final ID3TagService service = new ID3TagService();
+    private Path directory;
+    private List<File> files;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createCorpus() throws Exception {
+        directory = SyntheticCorpus.createDirectory();
+        files = SyntheticCorpus.create(directory, FILES, tagSize, artworkEdge, padding);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws Exception {
+        SyntheticCorpus.delete(directory);
+    }
+
+    private File nextFile() {
+        File file = files.get(next);
+        next = (next + 1) % files.size();
+        return file;
+    }
+
+    @Benchmark
+    public ID3Tag readTags() throws Exception {
+        return service.readTags(nextFile());
+    }
+
+    @Benchmark
+    public ID3Tag readListing() throws Exception {
+        return service.readListing(nextFile());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.id3tageditor.bench;
+
+import org.example.id3tageditor.ID3Tag;
+import org.example.id3tageditor.ID3TagService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving an edited tag back to its file. Before every call the file is restored from a
+ * pristine copy and the comment is edited: with padding to spare the edit is written in place,
+ * with no padding the larger tag forces the file to be rewritten.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.config.file=/dev/null")
+public class TagSaveBenchmark {
+
+    public enum Mode { IN_PLACE, REWRITE }
+
+    @Param({"IN_PLACE", "REWRITE"})
+    public Mode mode;
+
+    @Param({"SMALL", "LARGE"})
+    public SyntheticCorpus.TagSize tagSize;
+
+    @Param({"0", "600"})
+    public int artworkEdge;
+
+    private final ID3TagService service = new ID3TagService();
+    private Path directory;
+    private File pristine;
+    private File file;
+    private ID3Tag tag;
+
+    @Setup(Level.Trial)
+    public void createCorpus() throws Exception {
+        directory = SyntheticCorpus.createDirectory();
+        int padding = mode == Mode.IN_PLACE ? 4096 : 0;
+        pristine = SyntheticCorpus.create(directory, 1, tagSize, artworkEdge, padding).get(0);
+        file = directory.resolve("edited.mp3").toFile();
+    }
+
+    @Setup(Level.Invocation)
+    public void editCopy() throws Exception {
+        Files.copy(pristine.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        tag = service.readListing(file);
+        tag.setComment(tag.getComment() + " - edited");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws Exception {
+        SyntheticCorpus.delete(directory);
+    }
+
+    @Benchmark
+    public long saveTags() throws Exception {
+        return service.saveTags(tag, file);
+    }
+}